@@ -1,14 +1,61 @@
 package com.softwareinsight.AuthService.config;
 
+import com.softwareinsight.AuthService.service.JwtSigningKeys;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "jwt")
 @Data
 public class JwtConfig {
     private String secret;
+    /**
+     * Access token lifetime in ms - kept short, clients renew via /refresh
+     */
     private Long expiration;
+
+    /**
+     * Refresh token lifetime in ms
+     */
     private Long refreshExpiration;
+
+    /**
+     * Answer /validate from the token's own claims instead of loading the user from the database
+     * Tokens without userId/email claims (issued before these were added) still use the database
+     */
+    private boolean statelessValidation = true;
+
+    private Signing signing = new Signing();
+
+    @Data
+    public static class Signing {
+        /**
+         * HS256 (shared jwt.secret), ES256 or EdDSA (Ed25519)
+         * With ES256/EdDSA verifiers only need the public keys from /.well-known/jwks.json
+         */
+        private String algorithm = JwtSigningKeys.HS256;
+
+        /**
+         * Private signing key as a JWK (JSON, with kid)
+         * Empty = generate one at startup, which only suits a single instance
+         */
+        private String jwk;
+
+        /**
+         * Public JWKs of retired keys that are still published and accepted, so tokens
+         * signed before a key rotation stay valid until they expire
+         */
+        private List<String> previousJwks = new ArrayList<>();
+
+        /**
+         * With ES256/EdDSA, still accept tokens without a kid that were signed with jwt.secret
+         * before the switch. Turn on for one token lifetime after switching, then off again;
+         * ignored in HS256 mode
+         */
+        private boolean acceptLegacyHs256 = false;
+    }
 }
@@ -0,0 +1,61 @@
+package com.softwareinsight.AuthService.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+
+import java.util.Map;
+
+/**
+ * Kafka producer for the outbox relay
+ *
+ * Starts from the spring.kafka.* producer settings (security, SSL/SASL, client-id, producer.properties, ...)
+ * and overlays the outbox.producer.* tuning (KafkaProducerProperties): batching, compression, idempotence.
+ * Outbox payloads are already JSON, so keys and values are always sent as plain strings.
+ * Design Pattern: Configuration Pattern
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate(
+            KafkaProperties kafkaProperties,
+            KafkaProducerProperties producerProperties,
+            ObjectProvider<SslBundles> sslBundles,
+            MeterRegistry meterRegistry) {
+        Map<String, Object> config = producerConfig(kafkaProperties, sslBundles.getIfAvailable(), producerProperties);
+
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(config);
+        // Client metrics: batch-size-avg, compression-rate-avg, record-queue-time-avg, ...
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return new KafkaTemplate<>(factory);
+    }
+
+    /**
+     * spring.kafka.* producer properties with the outbox tuning and String serializers on top
+     */
+    static Map<String, Object> producerConfig(KafkaProperties kafkaProperties,
+                                              SslBundles sslBundles,
+                                              KafkaProducerProperties producerProperties) {
+        Map<String, Object> config = kafkaProperties.buildProducerProperties(sslBundles);
+
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, producerProperties.getLingerMs());
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, producerProperties.getBatchSize());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerProperties.getCompressionType());
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, producerProperties.isIdempotence());
+        config.put(ProducerConfig.ACKS_CONFIG, producerProperties.getAcks());
+        config.put(ProducerConfig.BUFFER_MEMORY_CONFIG, producerProperties.getBufferMemory());
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, producerProperties.getMaxBlockMs());
+        return config;
+    }
+}
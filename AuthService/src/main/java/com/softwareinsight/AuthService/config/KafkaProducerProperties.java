@@ -0,0 +1,43 @@
+package com.softwareinsight.AuthService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tuning for the outbox relay's Kafka producer
+ * Defaults favour throughput: the relay hands over whole batches, so a short linger fills large, compressed batches
+ */
+@Configuration
+@ConfigurationProperties(prefix = "outbox.producer")
+@Data
+public class KafkaProducerProperties {
+    /**
+     * How long the producer waits for more records before sending a partial batch (ms)
+     */
+    private int lingerMs = 10;
+
+    /**
+     * Upper bound of a per-partition batch (bytes)
+     */
+    private int batchSize = 65536;
+
+    /**
+     * none, gzip, snappy, lz4 or zstd
+     */
+    private String compressionType = "lz4";
+
+    /**
+     * Idempotent producer: broker de-duplicates retried sends (requires acks=all)
+     */
+    private boolean idempotence = true;
+
+    private String acks = "all";
+
+    /**
+     * Memory for records waiting to be sent (bytes); send() blocks up to max-block-ms when it is full
+     */
+    private long bufferMemory = 64L * 1024 * 1024;
+
+    private long maxBlockMs = 10000;
+}
@@ -0,0 +1,63 @@
+package com.softwareinsight.AuthService.config;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds password encoders from PasswordHashingProperties
+ */
+public final class PasswordEncoders {
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+    public static final String ARGON2 = "argon2";
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * Encodes with the configured algorithm as {id}hash, and verifies every supported algorithm
+     * Hashes without an {id} prefix (stored before this encoder existed) are plain BCrypt
+     */
+    public static PasswordEncoder delegating(PasswordHashingProperties properties) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, forAlgorithm(BCRYPT, properties));
+        encoders.put(PBKDF2, forAlgorithm(PBKDF2, properties));
+        encoders.put(ARGON2, forAlgorithm(ARGON2, properties));
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(
+                forAlgorithmId(properties.getAlgorithm()), encoders);
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return encoder;
+    }
+
+    /**
+     * A single-algorithm encoder with the configured cost
+     */
+    public static PasswordEncoder forAlgorithm(String algorithm, PasswordHashingProperties properties) {
+        return switch (forAlgorithmId(algorithm)) {
+            case BCRYPT -> new BCryptPasswordEncoder(properties.getBcrypt().getStrength());
+            case PBKDF2 -> new Pbkdf2PasswordEncoder("", 16, properties.getPbkdf2().getIterations(),
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            case ARGON2 -> new Argon2PasswordEncoder(16, 32,
+                    properties.getArgon2().getParallelism(),
+                    properties.getArgon2().getMemoryKb(),
+                    properties.getArgon2().getIterations());
+            default -> throw new IllegalStateException("Unreachable");
+        };
+    }
+
+    private static String forAlgorithmId(String algorithm) {
+        String id = algorithm == null ? "" : algorithm.trim().toLowerCase();
+        if (!id.equals(BCRYPT) && !id.equals(PBKDF2) && !id.equals(ARGON2)) {
+            throw new IllegalArgumentException("Unsupported password-hashing.algorithm: " + algorithm
+                    + " (expected bcrypt, pbkdf2 or argon2)");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,55 @@
+package com.softwareinsight.AuthService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Password hashing: algorithm and cost for new hashes, and the bounded hashing pool
+ *
+ * Changing the algorithm or raising a cost does not need a password reset - existing
+ * hashes still verify and are re-hashed with the new settings on the user's next login.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "password-hashing")
+@Data
+public class PasswordHashingProperties {
+    /**
+     * Algorithm for new hashes: bcrypt, pbkdf2 or argon2
+     */
+    private String algorithm = PasswordEncoders.BCRYPT;
+
+    private Bcrypt bcrypt = new Bcrypt();
+    private Pbkdf2 pbkdf2 = new Pbkdf2();
+    private Argon2 argon2 = new Argon2();
+
+    /**
+     * Hashing threads; 0 = one per core
+     */
+    private int poolSize = 0;
+    private int queueCapacity = 64;
+    private Duration maxWait = Duration.ofSeconds(2);
+    private long retryAfterSeconds = 1;
+
+    @Data
+    public static class Bcrypt {
+        /**
+         * log2 of the number of rounds (4-31); each step doubles the cost
+         */
+        private int strength = 10;
+    }
+
+    @Data
+    public static class Pbkdf2 {
+        private int iterations = 310000;
+    }
+
+    @Data
+    public static class Argon2 {
+        private int memoryKb = 16384;
+        private int iterations = 2;
+        private int parallelism = 1;
+    }
+}
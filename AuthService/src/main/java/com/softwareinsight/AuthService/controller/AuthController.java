@@ -1,8 +1,10 @@
 package com.softwareinsight.AuthService.controller;
 
 import com.softwareinsight.AuthService.dto.Request.LoginRequest;
+import com.softwareinsight.AuthService.dto.Request.RefreshTokenRequest;
 import com.softwareinsight.AuthService.dto.Request.RegisterRequest;
 import com.softwareinsight.AuthService.dto.Request.ValidateTokenRequest;
+import com.softwareinsight.AuthService.dto.Request.ValidateTokensBatchRequest;
 import com.softwareinsight.AuthService.dto.Response.AuthResponse;
 import com.softwareinsight.AuthService.service.AuthService;
 import jakarta.validation.Valid;
@@ -12,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -59,6 +62,21 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Refresh access token
+     *
+     * POST /api/v1/auth/refresh
+     * The presented refresh token is revoked; use the one in the response next time
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(
+            @Valid @RequestBody RefreshTokenRequest request) {
+
+        log.debug("Token refresh request received");
+        AuthResponse response = authService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Validate token
      *
@@ -73,6 +91,21 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Validate several tokens in one request
+     *
+     * POST /api/v1/auth/validate/batch
+     * Returns one result per token, in request order
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<List<Map<String, Object>>> validateTokens(
+            @Valid @RequestBody ValidateTokensBatchRequest request) {
+
+        log.debug("Batch token validation request received for {} token(s)", request.getTokens().size());
+        List<Map<String, Object>> response = authService.validateTokens(request.getTokens());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Health check endpoint
      */
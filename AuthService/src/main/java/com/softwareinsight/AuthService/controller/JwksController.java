@@ -0,0 +1,33 @@
+package com.softwareinsight.AuthService.controller;
+
+import com.softwareinsight.AuthService.service.JwtSigningKeys;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Public keys for verifying access tokens (RFC 7517 JWK set)
+ *
+ * Gateway and other services fetch this once and again only when a token names a kid
+ * they do not know, e.g. after a key rotation.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    private final JwtSigningKeys signingKeys;
+
+    /**
+     * GET /.well-known/jwks.json
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(signingKeys.jwkSet());
+    }
+}
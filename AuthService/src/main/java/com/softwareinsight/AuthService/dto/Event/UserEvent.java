@@ -0,0 +1,30 @@
+package com.softwareinsight.AuthService.dto.Event;
+
+import com.softwareinsight.AuthService.entity.User;
+
+/**
+ * Value of records on the user-events topic
+ * Field names match UserService's UserEvent DTO
+ */
+public record UserEvent(
+        String eventType,
+        Long userId,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        Long timestamp
+) {
+    public static final String USER_CREATED = "USER_CREATED";
+
+    public static UserEvent created(User user) {
+        return new UserEvent(
+                USER_CREATED,
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                System.currentTimeMillis());
+    }
+}
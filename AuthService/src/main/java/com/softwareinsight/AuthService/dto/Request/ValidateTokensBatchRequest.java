@@ -0,0 +1,19 @@
+package com.softwareinsight.AuthService.dto.Request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValidateTokensBatchRequest {
+    @NotEmpty(message = "At least one token is required")
+    @Size(max = 500, message = "A batch can contain at most 500 tokens")
+    private List<@NotBlank(message = "Token is required") String> tokens;
+}
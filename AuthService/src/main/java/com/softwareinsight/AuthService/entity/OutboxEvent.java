@@ -0,0 +1,59 @@
+package com.softwareinsight.AuthService.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row: an event written in the same transaction as the change it describes
+ * and published to Kafka afterwards by OutboxRelay
+ *
+ * Design Pattern: Transactional Outbox
+ */
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_unsent", columnList = "sentAt, id")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    /**
+     * Kafka record key - events with the same key are relayed in order
+     */
+    @Column(name = "event_key", nullable = false, length = 100)
+    private String key;
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    /**
+     * JSON record value
+     */
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+}
@@ -12,6 +12,12 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * Login lookups are exact and use the unique constraints on username / email. The
+ * case-insensitive registration check uses the expression indexes idx_users_username_lower
+ * and idx_users_email_lower on lower(username) / lower(email). JPA cannot declare expression
+ * indexes, so they are created by schema.sql after Hibernate has updated the schema.
+ */
 @Entity
 @Table(
         name = "users",
@@ -1,6 +1,7 @@
 package com.softwareinsight.AuthService.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -84,6 +85,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
     }
 
+    /**
+     * Handle an unusable refresh token - the client has to log in again
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRefreshToken(
+            InvalidRefreshTokenException ex) {
+
+        log.warn("Refresh rejected: {}", ex.getMessage());
+
+        Map<String, Object> response = buildErrorResponse(
+                ex.getMessage(),
+                null,
+                HttpStatus.UNAUTHORIZED
+        );
+
+        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+    }
+
     /**
      * Handle user not found
      */
@@ -102,6 +121,27 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handle a saturated password hashing pool
+     * Fails fast with 503 so clients back off instead of queueing on request threads
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, Object>> handlePasswordHashingBusy(
+            PasswordHashingBusyException ex) {
+
+        log.warn("Password hashing saturated: {}", ex.getMessage());
+
+        Map<String, Object> response = buildErrorResponse(
+                ex.getMessage(),
+                null,
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     /**
      * Handle all other exceptions
      */
@@ -0,0 +1,10 @@
+package com.softwareinsight.AuthService.exceptions;
+
+/**
+ * Refresh token is unknown, expired, revoked or belongs to a disabled account (401)
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
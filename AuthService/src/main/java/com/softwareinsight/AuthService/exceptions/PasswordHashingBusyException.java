@@ -0,0 +1,16 @@
+package com.softwareinsight.AuthService.exceptions;
+
+import lombok.Getter;
+
+/**
+ * The password hashing pool is saturated - the client should retry later (503)
+ */
+@Getter
+public class PasswordHashingBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
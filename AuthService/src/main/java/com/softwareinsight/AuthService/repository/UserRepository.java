@@ -2,16 +2,73 @@ package com.softwareinsight.AuthService.repository;
 
 import com.softwareinsight.AuthService.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    Optional<User> findByUsernameOrEmail(String username, String email);
 
-    Boolean existsByUsername(String username);
-    Boolean existsByEmail(String email);
+    /**
+     * Username and email of an existing account
+     */
+    interface UsernameAndEmail {
+        String getUsername();
+        String getEmail();
+    }
+
+    /**
+     * Accounts whose username or email collides (case-insensitively) with a registration
+     * One round trip; each side of the OR uses its own lower() index
+     */
+    @Query("select u.username as username, u.email as email from User u "
+            + "where lower(u.username) = lower(:username) or lower(u.email) = lower(:email)")
+    List<UsernameAndEmail> findUsernameOrEmailTaken(@Param("username") String username, @Param("email") String email);
+
+    /**
+     * Load a user and their roles in one query, by username or email (login)
+     *
+     * Input containing '@' is looked up as an email first, anything else only as a username, so
+     * each lookup is a single probe on a unique index instead of an OR over both columns.
+     * Accounts registered before usernames were restricted may still contain '@', so an email
+     * miss falls back to the username. Matching is exact, like the unique constraints.
+     */
+    default Optional<User> findWithRolesByLogin(String login) {
+        if (login.indexOf('@') < 0) {
+            return findWithRolesByUsername(login);
+        }
+        return findWithRolesByEmail(login).or(() -> findWithRolesByUsername(login));
+    }
+
+    @Query("select distinct u from User u left join fetch u.roles where u.username = :username")
+    Optional<User> findWithRolesByUsername(@Param("username") String username);
+
+    @Query("select distinct u from User u left join fetch u.roles where u.email = :email")
+    Optional<User> findWithRolesByEmail(@Param("email") String email);
+
+    /**
+     * Load several users and their roles in one query (used by batch token validation)
+     */
+    @Query("select distinct u from User u left join fetch u.roles where u.username in :usernames")
+    List<User> findAllWithRolesByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Usernames of accounts that must not be accepted even with a valid token
+     */
+    @Query("select u.username from User u where u.enabled = false or u.accountNonLocked = false")
+    List<String> findDisabledOrLockedUsernames();
+
+    /**
+     * Replace a password hash without loading the user (hash upgrade on login)
+     */
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
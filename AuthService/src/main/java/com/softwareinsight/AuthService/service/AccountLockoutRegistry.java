@@ -0,0 +1,53 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * In-memory set of disabled or locked accounts
+ *
+ * Stateless token validation cannot see account status changes made after a token was issued.
+ * Such accounts are rare, so their usernames are kept in a small set that is
+ * refreshed from the database periodically.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountLockoutRegistry {
+
+    private final UserRepository userRepository;
+
+    private volatile Set<String> lockedUsernames = Set.of();
+
+    /**
+     * Reload disabled and locked accounts from the database
+     */
+    @Scheduled(
+            initialDelayString = "${jwt.lockout-refresh-initial-delay:0}",
+            fixedDelayString = "${jwt.lockout-refresh-interval:60000}"
+    )
+    public void refresh() {
+        try {
+            Set<String> latest = Set.copyOf(userRepository.findDisabledOrLockedUsernames());
+            if (latest.size() != lockedUsernames.size()) {
+                log.info("Disabled or locked accounts: {}", latest.size());
+            }
+            lockedUsernames = latest;
+        } catch (Exception e) {
+            // Keep the previous snapshot - a DB blip should not unlock anyone
+            log.error("Failed to refresh account lockout set: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Check whether tokens for this user must be rejected
+     */
+    public boolean isLocked(String username) {
+        return lockedUsernames.contains(username);
+    }
+}
@@ -1,26 +1,34 @@
 package com.softwareinsight.AuthService.service;
 
+import com.softwareinsight.AuthService.config.JwtConfig;
 import com.softwareinsight.AuthService.dto.Request.LoginRequest;
+import com.softwareinsight.AuthService.dto.Request.RefreshTokenRequest;
 import com.softwareinsight.AuthService.dto.Request.RegisterRequest;
 import com.softwareinsight.AuthService.dto.Response.AuthResponse;
 import com.softwareinsight.AuthService.entity.Role;
 import com.softwareinsight.AuthService.entity.User;
 import com.softwareinsight.AuthService.exceptions.UserAlreadyExistsException;
 import com.softwareinsight.AuthService.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,10 +39,10 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsServiceImpl userDetailsService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-
-    private static final String USER_EVENTS_TOPIC = "user-events";
+    private final UserEventOutbox userEventOutbox;
+    private final JwtConfig jwtConfig;
+    private final AccountLockoutRegistry accountLockoutRegistry;
+    private final RefreshTokenService refreshTokenService;
 
     /**
      * Register new user
@@ -45,12 +53,15 @@ public class AuthService {
     public AuthResponse register(RegisterRequest request) {
         log.info("Registering new user: {}", request.getUsername());
 
-        // Check if a user already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
+        // Check if a user already exists - username and email in one query, case-insensitive
+        List<UserRepository.UsernameAndEmail> taken =
+                userRepository.findUsernameOrEmailTaken(request.getUsername(), request.getEmail());
+
+        if (taken.stream().anyMatch(existing -> existing.getUsername().equalsIgnoreCase(request.getUsername()))) {
             throw new UserAlreadyExistsException("Username already exists: " + request.getUsername());
         }
 
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (!taken.isEmpty()) {
             throw new UserAlreadyExistsException("Email already exists: " + request.getEmail());
         }
 
@@ -72,14 +83,15 @@ public class AuthService {
         User savedUser = userRepository.save(user);
         log.info("User registered successfully: {}", savedUser.getUsername());
 
-        // Publish user-created event to Kafka (Event-Driven Architecture)
-        publishUserCreatedEvent(savedUser);
+        // Queue user-created event in the same transaction (Event-Driven Architecture)
+        // OutboxRelay publishes it to Kafka, so registration does not wait for the broker
+        userEventOutbox.userCreated(savedUser);
 
-        // Generate token
-        UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getUsername());
-        String token = jwtService.generateToken(userDetails);
+        // Generate tokens from the saved entity - no need to reload the user
+        String token = jwtService.generateToken(savedUser);
+        String refreshToken = refreshTokenService.issue(savedUser);
 
-        return buildAuthResponse(savedUser, token);
+        return buildAuthResponse(savedUser, token, refreshToken);
     }
 
     /**
@@ -95,73 +107,168 @@ public class AuthService {
                 )
         );
 
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-
-        // Find user entity
-        User user = userRepository.findByUsernameOrEmail(
-                userDetails.getUsername(),
-                userDetails.getUsername()
-        ).orElseThrow(() -> new RuntimeException("User not found"));
+        // The principal already carries the entity loaded during authentication
+        User user = ((AuthenticatedUser) authentication.getPrincipal()).getUser();
 
-        // Generate token
-        String token = jwtService.generateToken(userDetails);
+        // Generate tokens - a new refresh token family per login
+        String token = jwtService.generateToken(user);
+        String refreshToken = refreshTokenService.issue(user);
 
         log.info("User logged in successfully: {}", user.getUsername());
 
-        return buildAuthResponse(user, token);
+        return buildAuthResponse(user, token, refreshToken);
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token
+     *
+     * The only token operation that touches the database; the old refresh token is revoked.
+     */
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = rotation.user();
+
+        String token = jwtService.generateToken(user);
+        log.debug("Access token refreshed for user: {}", user.getUsername());
+
+        return buildAuthResponse(user, token, rotation.refreshToken());
     }
 
     /**
      * Validate token
+     *
+     * In stateless mode (default) the answer comes from the verified claims plus an in-memory
+     * lockout check, so no database round trip is needed. Tokens issued before userId/email
+     * were embedded fall back to a user lookup.
      */
     public Map<String, Object> validateToken(String token) {
         log.debug("Validating token");
+        return validateTokens(List.of(token)).get(0);
+    }
 
-        Map<String, Object> response = new HashMap<>();
+    /**
+     * Validate several tokens at once
+     *
+     * Results are returned in request order. Users that have to be read from the database
+     * are loaded with a single IN query, and duplicate tokens are verified only once.
+     */
+    public List<Map<String, Object>> validateTokens(List<String> tokens) {
+        log.debug("Validating {} token(s)", tokens.size());
 
-        try {
-            // Validate token
-            Boolean isValid = jwtService.validateToken(token);
+        // First pass: verify signatures and collect users that need a database lookup
+        Map<String, Claims> verified = new HashMap<>();
+        Map<String, Map<String, Object>> results = new HashMap<>();
+        Set<String> usernamesToLoad = new HashSet<>();
 
-            if (isValid) {
-                // Extract username
-                String username = jwtService.extractUsername(token);
+        for (String token : tokens) {
+            if (verified.containsKey(token) || results.containsKey(token)) {
+                continue;
+            }
+            try {
+                // Verify signature and expiration once
+                Claims claims = jwtService.extractValidClaims(token);
 
-                // Load user
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (accountLockoutRegistry.isLocked(claims.getSubject())) {
+                    results.put(token, invalidResponse("Account is disabled or locked"));
+                    continue;
+                }
 
-                // Get user entity for additional info
-                User user = userRepository.findByUsername(username)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
+                verified.put(token, claims);
+                if (!canValidateStateless(claims)) {
+                    usernamesToLoad.add(claims.getSubject());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Invalid token: {}", e.getMessage());
+                results.put(token, invalidResponse("Invalid or expired token"));
+            } catch (Exception e) {
+                log.error("Token validation failed: {}", e.getMessage());
+                results.put(token, invalidResponse("Token validation failed: " + e.getMessage()));
+            }
+        }
+
+        Map<String, User> users = usernamesToLoad.isEmpty()
+                ? Map.of()
+                : userRepository.findAllWithRolesByUsernameIn(usernamesToLoad).stream()
+                        .collect(Collectors.toMap(User::getUsername, Function.identity()));
 
-                response.put("valid", true);
-                response.put("username", username);
-                response.put("userId", user.getId());
-                response.put("email", user.getEmail());
-                response.put("roles", userDetails.getAuthorities().stream()
-                        .map(GrantedAuthority::getAuthority)
-                        .collect(Collectors.toSet()));
+        // Second pass: build responses from claims, or from the loaded user entity
+        verified.forEach((token, claims) -> {
+            if (canValidateStateless(claims)) {
+                results.put(token, responseFromClaims(claims));
             } else {
-                response.put("valid", false);
-                response.put("message", "Invalid or expired token");
+                User user = users.get(claims.getSubject());
+                results.put(token, user != null
+                        ? responseFromUser(user)
+                        : invalidResponse("Token validation failed: User not found"));
             }
-        } catch (Exception e) {
-            log.error("Token validation failed: {}", e.getMessage());
-            response.put("valid", false);
-            response.put("message", "Token validation failed: " + e.getMessage());
+        });
+
+        List<Map<String, Object>> responses = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            responses.add(results.get(token));
         }
+        return responses;
+    }
+
+    /**
+     * Whether the token carries everything /validate returns
+     */
+    private boolean canValidateStateless(Claims claims) {
+        return jwtConfig.isStatelessValidation()
+                && claims.get(JwtService.CLAIM_USER_ID) != null
+                && claims.get(JwtService.CLAIM_EMAIL) != null;
+    }
+
+    private Map<String, Object> responseFromClaims(Claims claims) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("valid", true);
+        response.put("username", claims.getSubject());
+        response.put("userId", claims.get(JwtService.CLAIM_USER_ID, Long.class));
+        response.put("email", claims.get(JwtService.CLAIM_EMAIL, String.class));
+        response.put("roles", rolesFromClaims(claims));
+        return response;
+    }
+
+    private Map<String, Object> responseFromUser(User user) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("valid", true);
+        response.put("username", user.getUsername());
+        response.put("userId", user.getId());
+        response.put("email", user.getEmail());
+        response.put("roles", user.getRoles().stream()
+                .map(Role::name)
+                .collect(Collectors.toSet()));
+        return response;
+    }
 
+    private Map<String, Object> invalidResponse(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("valid", false);
+        response.put("message", message);
         return response;
     }
 
+    /**
+     * Read the roles claim as a set of role names
+     */
+    private static Set<String> rolesFromClaims(Claims claims) {
+        Object roles = claims.get(JwtService.CLAIM_ROLES);
+        Set<String> result = new LinkedHashSet<>();
+        if (roles instanceof Collection<?> collection) {
+            collection.forEach(role -> result.add(String.valueOf(role)));
+        }
+        return result;
+    }
+
     /**
      * Build authentication response
      */
-    private AuthResponse buildAuthResponse(User user, String token) {
+    private AuthResponse buildAuthResponse(User user, String token, String refreshToken) {
         return AuthResponse.builder()
                 .accessToken(token)
                 .tokenType("Bearer")
-                .expiresIn(86400000L) // 24 hours
+                .refreshToken(refreshToken)
+                .expiresIn(jwtConfig.getExpiration())
                 .username(user.getUsername())
                 .firstName(user.getFirstName())
                 .lastName(user.getLastName())
@@ -169,29 +276,4 @@ public class AuthService {
                 .roles(user.getRoles())
                 .build();
     }
-
-    /**
-     * Publish user-created event to Kafka
-     *
-     * Event-Driven Architecture: Other services can listen to this event
-     * For example, Email service can send welcome email, Analytics service can track new users
-     */
-    private void publishUserCreatedEvent(User user) {
-        try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("eventType", "USER_CREATED");
-            event.put("userId", user.getId());
-            event.put("username", user.getUsername());
-            event.put("email", user.getEmail());
-            event.put("firstName", user.getFirstName());
-            event.put("lastName", user.getLastName());
-            event.put("timestamp", System.currentTimeMillis());
-
-            kafkaTemplate.send(USER_EVENTS_TOPIC, user.getId().toString(), event);
-            log.info("Published USER_CREATED event for user: {}", user.getUsername());
-        } catch (Exception e) {
-            log.error("Failed to publish user created event: {}", e.getMessage());
-            // Don't throw exception - event publishing failure shouldn't break registration
-        }
-    }
 }
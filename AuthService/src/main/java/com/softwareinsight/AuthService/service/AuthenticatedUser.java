@@ -0,0 +1,76 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.entity.User;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Spring Security principal that carries the loaded User entity
+ *
+ * Login and token generation read id, names and roles from here, so the user
+ * is fetched once per authentication instead of once more after it.
+ */
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final User user;
+    private final Set<GrantedAuthority> authorities;
+    private String password;
+
+    public AuthenticatedUser(User user) {
+        this(user, user.getPassword());
+    }
+
+    AuthenticatedUser(User user, String password) {
+        this.user = user;
+        this.password = password;
+        this.authorities = user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.name()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * The entity as loaded for this authentication (detached)
+     */
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return user.isAccountNonLocked();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return user.isEnabled();
+    }
+
+    /**
+     * Drop the hash once authentication is done; the entity itself is left untouched
+     */
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
@@ -1,11 +1,12 @@
 package com.softwareinsight.AuthService.service;
 
 import com.softwareinsight.AuthService.config.JwtConfig;
+import com.softwareinsight.AuthService.entity.Role;
+import com.softwareinsight.AuthService.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import java.util.function.Function;
@@ -13,7 +14,6 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -23,7 +23,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class JwtService {
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_EMAIL = "email";
+
     private final JwtConfig jwtConfig;
+    private final JwtSigningKeys signingKeys;
+
+    /**
+     * Parser is built once and shared (immutable and thread-safe)
+     */
+    private volatile JwtParser parser;
 
     /**
      * Generate JWT Token
@@ -31,7 +41,7 @@ public class JwtService {
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
 
-        claims.put("roles", userDetails.getAuthorities()
+        claims.put(CLAIM_ROLES, userDetails.getAuthorities()
                 .stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList())
@@ -40,6 +50,24 @@ public class JwtService {
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Generate JWT Token from the user entity
+     * userId and email are embedded so /validate can answer from the token alone
+     */
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+
+        claims.put(CLAIM_ROLES, user.getRoles()
+                .stream()
+                .map(Role::name)
+                .collect(Collectors.toList())
+        );
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_EMAIL, user.getEmail());
+
+        return createToken(claims, user.getUsername());
+    }
+
     /**
      * Create a token with claims and subject
      */
@@ -47,21 +75,27 @@ public class JwtService {
         long now = System.currentTimeMillis();
         long expiration = now + jwtConfig.getExpiration();
 
-        return Jwts.builder()
-                .subject(subject)
-                .claims(claims)
-                .issuedAt(new Date(now))
-                .expiration(new Date(expiration))
-                .signWith(getSigningKey())
+        return signingKeys.sign(Jwts.builder()
+                        .subject(subject)
+                        .claims(claims)
+                        .issuedAt(new Date(now))
+                        .expiration(new Date(expiration)))
                 .compact();
     }
 
     /**
-     * Get a signing key from secret
+     * Get the shared parser, building it on first use
+     * The verification key is picked per token (kid or shared secret) by JwtSigningKeys
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtConfig.getSecret());
-        return Keys.hmacShaKeyFor(keyBytes);
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser()
+                    .keyLocator(signingKeys)
+                    .build();
+            parser = current;
+        }
+        return current;
     }
 
     /**
@@ -90,13 +124,24 @@ public class JwtService {
      * Extract all claims from a token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    /**
+     * Verify signature and expiration in one pass and return the claims
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims extractValidClaims(String token) {
+        Claims claims = extractAllClaims(token);
+        if (claims.getExpiration() == null) {
+            throw new JwtException("Token has no expiration");
+        }
+        return claims;
+    }
+
     /**
      * Check if the token is expired
      */
@@ -0,0 +1,184 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.config.JwtConfig;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.KeyPairBuilderSupplier;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keys for signing and verifying access tokens
+ *
+ * HS256 signs with the shared jwt.secret. ES256 and EdDSA sign with a private key and put
+ * its kid in the token header; the public halves (current and previous keys) are served as
+ * a JWK set so other services can verify tokens without holding any secret.
+ *
+ * Tokens without a kid are HS256 tokens. They are verified with jwt.secret in HS256 mode;
+ * after switching to a key pair only while jwt.signing.accept-legacy-hs256 is on, so tokens
+ * issued before the switch can be honoured until they expire and then shut out.
+ */
+@Component
+@Slf4j
+public class JwtSigningKeys extends LocatorAdapter<Key> {
+
+    public static final String HS256 = "HS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    private final SecretKey secretKey;
+    private final SecretKey legacyKey;
+    private final PrivateKey privateKey;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final String keyId;
+    private final Map<String, PublicKey> publicKeys = new HashMap<>();
+    private final Map<String, Object> jwkSet;
+
+    public JwtSigningKeys(JwtConfig jwtConfig) {
+        JwtConfig.Signing signing = jwtConfig.getSigning();
+        String algorithm = signing.getAlgorithm() == null ? HS256 : signing.getAlgorithm().trim();
+        this.secretKey = secretKeyOrNull(jwtConfig.getSecret());
+
+        List<Map<String, Object>> published = new ArrayList<>();
+
+        if (HS256.equalsIgnoreCase(algorithm)) {
+            this.privateKey = null;
+            this.signatureAlgorithm = null;
+            this.keyId = null;
+        } else {
+            this.signatureAlgorithm = switch (algorithm.toUpperCase(Locale.ROOT)) {
+                case "ES256" -> Jwts.SIG.ES256;
+                case "EDDSA" -> Jwts.SIG.EdDSA;
+                default -> throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + algorithm);
+            };
+
+            PublicJwk<?> currentJwk;
+            if (signing.getJwk() == null || signing.getJwk().isBlank()) {
+                KeyPair keyPair = ((KeyPairBuilderSupplier) signatureAlgorithm).keyPair().build();
+                currentJwk = publicJwk(keyPair.getPublic(), null);
+                this.privateKey = keyPair.getPrivate();
+                log.warn("jwt.signing.jwk is not set - generated a {} key ({}); tokens will not verify after a restart "
+                        + "or on other instances", signatureAlgorithm.getId(), currentJwk.getId());
+            } else {
+                Jwk<?> jwk = Jwks.parser().build().parse(signing.getJwk());
+                if (!(jwk instanceof PrivateJwk<?, ?, ?> privateJwk)) {
+                    throw new IllegalStateException("jwt.signing.jwk must be a private JWK");
+                }
+                currentJwk = publicJwk(privateJwk.toKeyPair().getPublic(), privateJwk.getId());
+                this.privateKey = privateJwk.toKeyPair().getPrivate();
+            }
+
+            this.keyId = currentJwk.getId();
+            publish(currentJwk, published);
+        }
+        this.legacyKey = privateKey == null || signing.isAcceptLegacyHs256() ? secretKey : null;
+
+        for (String previous : signing.getPreviousJwks()) {
+            Jwk<?> jwk = Jwks.parser().build().parse(previous);
+            PublicJwk<?> publicJwk = jwk instanceof PrivateJwk<?, ?, ?> privateJwk
+                    ? publicJwk(privateJwk.toKeyPair().getPublic(), privateJwk.getId())
+                    : publicJwk((PublicKey) jwk.toKey(), jwk.getId());
+            publish(publicJwk, published);
+        }
+
+        this.jwkSet = Map.of("keys", List.copyOf(published));
+        log.info("JWT signing: {}{}, {} published verification key(s){}",
+                signatureAlgorithm == null ? HS256 : signatureAlgorithm.getId(),
+                keyId == null ? "" : " (kid " + keyId + ")",
+                publicKeys.size(),
+                privateKey != null && legacyKey != null ? ", legacy HS256 tokens accepted" : "");
+    }
+
+    /**
+     * Sign a token with the current key, adding its kid for asymmetric keys
+     */
+    public JwtBuilder sign(JwtBuilder builder) {
+        if (privateKey == null) {
+            if (secretKey == null) {
+                throw new IllegalStateException("jwt.secret must be a Base64 HMAC key of at least 256 bits");
+            }
+            return builder.signWith(secretKey);
+        }
+        return builder
+                .header().keyId(keyId).and()
+                .signWith(privateKey, signatureAlgorithm);
+    }
+
+    /**
+     * Public keys as a JWK set ({"keys": [...]}) - empty in HS256 mode
+     */
+    public Map<String, Object> jwkSet() {
+        return jwkSet;
+    }
+
+    /**
+     * Verification key for a token: the public key named by its kid, or jwt.secret without one
+     * (HS256 mode, or legacy HS256 tokens while those are accepted)
+     */
+    @Override
+    protected Key locate(ProtectedHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (legacyKey == null) {
+                throw new UnsupportedJwtException("Token has no key id");
+            }
+            return legacyKey;
+        }
+
+        PublicKey key = publicKeys.get(kid);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    private void publish(PublicJwk<?> jwk, List<Map<String, Object>> published) {
+        publicKeys.put(jwk.getId(), jwk.toKey());
+        published.add(new LinkedHashMap<>(jwk));
+    }
+
+    /**
+     * Public JWK for a key, with the given kid or its RFC 7638 thumbprint
+     */
+    private static PublicJwk<?> publicJwk(PublicKey publicKey, String kid) {
+        var builder = Jwks.builder().key(publicKey).publicKeyUse("sig");
+        return kid == null || kid.isBlank()
+                ? builder.idFromThumbprint().build()
+                : builder.id(kid).build();
+    }
+
+    private static SecretKey secretKeyOrNull(String secret) {
+        if (secret == null || secret.isBlank()) {
+            return null;
+        }
+        try {
+            return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        } catch (RuntimeException e) {
+            log.warn("jwt.secret is not a usable HMAC key - HS256 tokens can be neither issued nor verified: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.entity.OutboxEvent;
+import com.softwareinsight.AuthService.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox rows to Kafka
+ *
+ * Each run locks a batch of unsent rows (SKIP LOCKED), sends them all without waiting
+ * in between so the producer can batch and compress them, then waits for the acks and
+ * marks the delivered rows as sent. Failed rows stay in the outbox and are retried on the
+ * next run - delivery is at-least-once, and consumers are idempotent.
+ *
+ * Once a send fails, later rows with the same key are not marked either, so per-key
+ * order is preserved on retry.
+ *
+ * Metrics per topic: kafka.producer.send.latency (send() to ack) and kafka.producer.record.size
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration retention;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TopicMetrics> topicMetrics = new ConcurrentHashMap<>();
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.enabled:true}") boolean enabled,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.send-timeout:10s}") Duration sendTimeout,
+            @Value("${outbox.relay.retention:1d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+    }
+
+    /**
+     * Drain the outbox until it is empty or a batch could not be fully delivered
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:250}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Relay one batch; returns the number of rows marked as sent
+     * Must run inside a transaction (the row locks are held until it ends)
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findBySentAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(send(event));
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> sent = new ArrayList<>(events.size());
+        List<Long> failed = new ArrayList<>();
+        Set<String> failedKeys = new HashSet<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            boolean delivered = awaitSend(sends.get(i), deadline, event);
+            if (delivered && !failedKeys.contains(event.getKey())) {
+                sent.add(event.getId());
+            } else {
+                failedKeys.add(event.getKey());
+                failed.add(event.getId());
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            outboxEventRepository.markSent(sent, LocalDateTime.now());
+        }
+        if (!failed.isEmpty()) {
+            outboxEventRepository.markFailed(failed);
+            log.warn("{} outbox event(s) not delivered, will retry", failed.size());
+        }
+
+        log.debug("Relayed {} outbox event(s)", sent.size());
+        return failed.isEmpty() ? sent.size() : 0;
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxEvent event) {
+        TopicMetrics metrics = topicMetrics.computeIfAbsent(event.getTopic(), this::createTopicMetrics);
+        long start = System.nanoTime();
+
+        return kafkaTemplate.send(event.getTopic(), event.getKey(), event.getPayload())
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        metrics.sendLatency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (result != null && result.getRecordMetadata() != null) {
+                            metrics.recordSize().record(Math.max(0, result.getRecordMetadata().serializedKeySize())
+                                    + Math.max(0, result.getRecordMetadata().serializedValueSize()));
+                        }
+                    }
+                });
+    }
+
+    private TopicMetrics createTopicMetrics(String topic) {
+        return new TopicMetrics(
+                Timer.builder("kafka.producer.send.latency")
+                        .description("Time from send() to broker acknowledgement")
+                        .tag("topic", topic)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                DistributionSummary.builder("kafka.producer.record.size")
+                        .description("Serialized key + value size")
+                        .baseUnit("bytes")
+                        .tag("topic", topic)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    private record TopicMetrics(Timer sendLatency, DistributionSummary recordSize) {
+    }
+
+    private boolean awaitSend(CompletableFuture<?> send, long deadline, OutboxEvent event) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.error("Failed to publish outbox event {} ({}): {}", event.getId(), event.getEventType(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Remove rows that were sent longer ago than the retention period
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.cleanup-interval:3600000}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deleteSentBefore(LocalDateTime.now().minus(retention)));
+            if (deleted != null && deleted > 0) {
+                log.info("Removed {} sent outbox event(s)", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Outbox cleanup failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.config.JwtConfig;
+import com.softwareinsight.AuthService.entity.RefreshToken;
+import com.softwareinsight.AuthService.entity.User;
+import com.softwareinsight.AuthService.exceptions.InvalidRefreshTokenException;
+import com.softwareinsight.AuthService.repository.RefreshTokenRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens
+ *
+ * Access tokens are short-lived and validated without the database; only a refresh
+ * reads and writes a refresh_tokens row. Every refresh revokes the presented token and
+ * returns a new one. A revoked token presented again means it was copied, so the whole
+ * family (every token from that login) is revoked.
+ *
+ * Design Pattern: Refresh Token Rotation
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtConfig jwtConfig;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * New user and refresh token after a successful rotation
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    /**
+     * Start a new token family, e.g. on login or registration
+     *
+     * @return the refresh token to hand to the client
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for a new one
+     *
+     * @throws InvalidRefreshTokenException if the token is unknown, expired or revoked, or the account is disabled
+     */
+    @Transactional(dontRollbackOn = InvalidRefreshTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findForRotation(hash(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        User user = current.getUser();
+
+        if (current.getRevokedAt() != null) {
+            // Kept on purpose: the family revocation must commit even though we throw
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamily(), now);
+            log.warn("Refresh token reuse for user {} - revoked {} token(s) in family {}",
+                    user.getUsername(), revoked, current.getFamily());
+            throw new InvalidRefreshTokenException("Refresh token has been revoked");
+        }
+
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        if (!user.isEnabled() || !user.isAccountNonLocked()) {
+            refreshTokenRepository.revokeFamily(current.getFamily(), now);
+            throw new InvalidRefreshTokenException("Account is disabled or locked");
+        }
+
+        current.setRevokedAt(now);
+        return new Rotation(user, issue(user, current.getFamily()));
+    }
+
+    /**
+     * Remove expired tokens - revoked ones are kept until then for reuse detection
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:3600000}")
+    @Transactional
+    public void cleanup() {
+        try {
+            int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+            if (deleted > 0) {
+                log.info("Removed {} expired refresh token(s)", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Refresh token cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    private String issue(User user, String family) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .user(user)
+                .family(family)
+                .expiresAt(LocalDateTime.now().plus(jwtConfig.getRefreshExpiration(), ChronoUnit.MILLIS))
+                .build());
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -3,58 +3,73 @@ package com.softwareinsight.AuthService.service;
 import com.softwareinsight.AuthService.entity.User;
 import com.softwareinsight.AuthService.repository.UserRepository;
 import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-
-import java.util.Set;
-import java.util.stream.Collectors;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final TransactionTemplate upgradeTransaction;
+
+    public UserDetailsServiceImpl(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        // Own transaction: a failed upgrade rolls back alone instead of marking a caller's transaction rollback-only
+        this.upgradeTransaction = new TransactionTemplate(transactionManager);
+        this.upgradeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     /**
      * Load user by username or email
      *
-     * @Transactional ensures roles are loaded (FetchType.EAGER helps, but this is safer)
+     * One query with roles fetched in the same join; the returned AuthenticatedUser
+     * carries the entity, so callers do not need to load the user again
      */
     @Override
     @Transactional()
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
         log.debug("Loading user by username or email: {}", usernameOrEmail);
 
-        User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
+        User user = userRepository.findWithRolesByLogin(usernameOrEmail)
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "User not found with username or email: " + usernameOrEmail));
 
-        return buildUserDetails(user);
+        return new AuthenticatedUser(user);
     }
 
     /**
-     * Convert our User entity to Spring Security's UserDetails
+     * Store a re-encoded password hash
+     *
+     * Called by DaoAuthenticationProvider after a successful login when the stored hash uses
+     * an older algorithm or a lower cost than configured. A failure here must not fail the login,
+     * so the update runs and fails in a transaction of its own.
      */
-    private UserDetails buildUserDetails(User user) {
-        Set<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.name()))
-                .collect(Collectors.toSet());
-
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(authorities)
-                .accountExpired(false)
-                .accountLocked(!user.isAccountNonLocked())
-                .credentialsExpired(false)
-                .disabled(!user.isEnabled())
-                .build();
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        try {
+            Integer updated = upgradeTransaction.execute(
+                    status -> userRepository.updatePassword(user.getUsername(), newPassword));
+            if (updated == null || updated == 0) {
+                return user;
+            }
+            log.info("Upgraded password hash for user: {}", user.getUsername());
+            if (user instanceof AuthenticatedUser authenticated) {
+                return new AuthenticatedUser(authenticated.getUser(), newPassword);
+            }
+            return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                    .password(newPassword)
+                    .build();
+        } catch (Exception e) {
+            log.warn("Failed to upgrade password hash for user {}: {}", user.getUsername(), e.getMessage());
+            return user;
+        }
     }
 }
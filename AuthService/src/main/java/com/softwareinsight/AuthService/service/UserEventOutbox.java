@@ -0,0 +1,60 @@
+package com.softwareinsight.AuthService.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.softwareinsight.AuthService.dto.Event.UserEvent;
+import com.softwareinsight.AuthService.entity.OutboxEvent;
+import com.softwareinsight.AuthService.entity.User;
+import com.softwareinsight.AuthService.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records user events in the outbox table
+ *
+ * Called inside the transaction that changes the user, so the event is stored
+ * if and only if the change commits. OutboxRelay publishes it to Kafka.
+ */
+@Service
+@Slf4j
+public class UserEventOutbox {
+    public static final String USER_EVENTS_TOPIC = "user-events";
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    /**
+     * Writer bound to UserEvent once, so serialization does not re-resolve the type per event
+     */
+    private final ObjectWriter userEventWriter;
+
+    public UserEventOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.userEventWriter = objectMapper.writerFor(UserEvent.class);
+    }
+
+    /**
+     * Queue a USER_CREATED event
+     *
+     * Event-Driven Architecture: Other services can listen to this event
+     * For example, Email service can send welcome email, Analytics service can track new users
+     */
+    public void userCreated(User user) {
+        enqueue(UserEvent.created(user));
+    }
+
+    private void enqueue(UserEvent event) {
+        String key = event.userId().toString();
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(USER_EVENTS_TOPIC)
+                    .key(key)
+                    .eventType(event.eventType())
+                    .payload(userEventWriter.writeValueAsString(event))
+                    .build());
+            log.debug("Queued {} event for key {}", event.eventType(), key);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.eventType() + " event", e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Applied on every start after Hibernate's ddl-auto (spring.jpa.defer-datasource-initialization)
+-- Expression indexes that JPA @Index cannot declare; statements must stay idempotent
+
+-- Case-insensitive registration check (see UserRepository.findUsernameOrEmailTaken)
+CREATE INDEX IF NOT EXISTS idx_users_username_lower ON users (lower(username));
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email));
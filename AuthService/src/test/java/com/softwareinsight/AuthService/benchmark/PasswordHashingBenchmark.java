@@ -0,0 +1,79 @@
+package com.softwareinsight.AuthService.benchmark;
+
+import com.softwareinsight.AuthService.config.PasswordEncoders;
+import com.softwareinsight.AuthService.config.PasswordHashingProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password hashes per second for each algorithm/cost setting
+ *
+ * Use it to pick password-hashing.* for a deployment: login cost is one matches() per attempt.
+ * Profiles are algorithm-cost, where cost is the BCrypt strength, PBKDF2 iterations or Argon2 memory (KiB).
+ *
+ * Run main() from the IDE, or after mvn test-compile:
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main PasswordHashingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"bcrypt-10", "bcrypt-11", "bcrypt-12", "pbkdf2-310000", "argon2-16384"})
+    public String profile;
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = profile.split("-");
+        String algorithm = parts[0];
+        int cost = Integer.parseInt(parts[1]);
+
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        switch (algorithm) {
+            case PasswordEncoders.BCRYPT -> properties.getBcrypt().setStrength(cost);
+            case PasswordEncoders.PBKDF2 -> properties.getPbkdf2().setIterations(cost);
+            case PasswordEncoders.ARGON2 -> properties.getArgon2().setMemoryKb(cost);
+            default -> throw new IllegalArgumentException(profile);
+        }
+
+        encoder = PasswordEncoders.forAlgorithm(algorithm, properties);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    /**
+     * Register path
+     */
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    /**
+     * Login path
+     */
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
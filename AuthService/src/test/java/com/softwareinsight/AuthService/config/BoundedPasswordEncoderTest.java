@@ -0,0 +1,80 @@
+package com.softwareinsight.AuthService.config;
+
+import com.softwareinsight.AuthService.exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void delegatesEncodeAndMatches() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PrefixEncoder(null, null),
+                1, 1, Duration.ofSeconds(1), 1, new SimpleMeterRegistry());
+
+        assertThat(encoder.encode("secret")).isEqualTo("x:secret");
+        assertThat(encoder.matches("secret", "x:secret")).isTrue();
+        encoder.shutdown();
+    }
+
+    @Test
+    void rejectsWithBusyWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PrefixEncoder(started, release),
+                1, 1, Duration.ofSeconds(5), 3, meterRegistry);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // One hash running, one queued - the third caller is turned away
+        callers.submit(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        callers.submit(() -> encoder.encode("b"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.queuedTasks() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(encoder.queuedTasks()).isEqualTo(1);
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(PasswordHashingBusyException.class)
+                .extracting("retryAfterSeconds").isEqualTo(3L);
+        assertThat(meterRegistry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        callers.shutdown();
+        assertThat(callers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        encoder.shutdown();
+    }
+
+    private record PrefixEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (started != null) {
+                started.countDown();
+            }
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "x:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.softwareinsight.AuthService.config;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaProducerConfigTest {
+
+    @Test
+    void springKafkaSettingsAreKeptAndOutboxTuningApplied() {
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setBootstrapServers(List.of("kafka:29092"));
+        kafkaProperties.setClientId("auth-service");
+        kafkaProperties.getSecurity().setProtocol("SASL_SSL");
+        kafkaProperties.getProducer().setValueSerializer(JsonSerializer.class);
+        kafkaProperties.getProducer().setCompressionType("gzip");
+        kafkaProperties.getProducer().getProperties().put("sasl.mechanism", "SCRAM-SHA-512");
+
+        KafkaProducerProperties outbox = new KafkaProducerProperties();
+        outbox.setLingerMs(25);
+
+        Map<String, Object> config = KafkaProducerConfig.producerConfig(kafkaProperties, null, outbox);
+
+        assertThat(config)
+                .containsEntry(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, List.of("kafka:29092"))
+                .containsEntry(ProducerConfig.CLIENT_ID_CONFIG, "auth-service")
+                .containsEntry(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SASL_SSL")
+                .containsEntry("sasl.mechanism", "SCRAM-SHA-512")
+                // Outbox tuning wins over spring.kafka.producer.*, payloads are pre-serialized JSON
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4")
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 25)
+                .containsEntry(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.softwareinsight.AuthService.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordEncodersTest {
+
+    @Test
+    void legacyBcryptHashStillMatchesAndIsFlaggedForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        PasswordEncoder encoder = PasswordEncoders.delegating(properties("bcrypt", 5));
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void currentHashIsNotUpgradedButLowerCostIs() {
+        PasswordEncoder weaker = PasswordEncoders.delegating(properties("bcrypt", 4));
+        PasswordEncoder current = PasswordEncoders.delegating(properties("bcrypt", 5));
+
+        String hash = current.encode("secret");
+        assertThat(hash).startsWith("{bcrypt}");
+        assertThat(current.upgradeEncoding(hash)).isFalse();
+        assertThat(current.upgradeEncoding(weaker.encode("secret"))).isTrue();
+    }
+
+    @Test
+    void switchingAlgorithmKeepsOldHashesValid() {
+        String bcryptHash = PasswordEncoders.delegating(properties("bcrypt", 4)).encode("secret");
+        PasswordEncoder pbkdf2 = PasswordEncoders.delegating(properties("pbkdf2", 4));
+
+        assertThat(pbkdf2.matches("secret", bcryptHash)).isTrue();
+        assertThat(pbkdf2.upgradeEncoding(bcryptHash)).isTrue();
+        assertThat(pbkdf2.encode("secret")).startsWith("{pbkdf2}");
+    }
+
+    @Test
+    void rejectsUnknownAlgorithm() {
+        assertThatThrownBy(() -> PasswordEncoders.delegating(properties("md5", 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PasswordHashingProperties properties(String algorithm, int bcryptStrength) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setAlgorithm(algorithm);
+        properties.getBcrypt().setStrength(bcryptStrength);
+        properties.getPbkdf2().setIterations(1000);
+        return properties;
+    }
+}
@@ -0,0 +1,164 @@
+package com.softwareinsight.AuthService.repository;
+
+import com.softwareinsight.AuthService.entity.Role;
+import com.softwareinsight.AuthService.entity.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks against a real PostgreSQL that the login and registration lookups in UserRepository
+ * are served by indexes
+ *
+ * The schema is the one the service runs with (Hibernate DDL plus schema.sql), and the plans
+ * are taken for the SQL Hibernate actually emits for the repository methods.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.softwareinsight.AuthService.repository.UserLookupIndexTest$RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserLookupIndexTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        if (userRepository.count() == 0) {
+            jdbcTemplate.update("""
+                    INSERT INTO users (username, email, password, first_name, last_name, enabled,
+                                       account_non_locked, created_at, last_updated)
+                    SELECT 'user' || i, 'user' || i || '@example.com', 'x', 'First', 'Last', true, true, now(), now()
+                    FROM generate_series(1, 10000) AS i""");
+            jdbcTemplate.update("""
+                    INSERT INTO user_roles (user_id, role)
+                    SELECT id, 'ROLE_USER' FROM users""");
+            userRepository.save(user("Alice", "alice.upper@example.com"));
+            userRepository.save(user("alice", "alice.lower@example.com"));
+            userRepository.save(user("legacy@host", "legacy@example.com"));
+            jdbcTemplate.execute("ANALYZE");
+        }
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void usernameLoginUsesUsernameIndex() {
+        userRepository.findWithRolesByLogin("user42");
+
+        assertThat(explainLastStatement("user42"))
+                .contains(indexOn("username"))
+                .doesNotContain("Seq Scan on users");
+    }
+
+    @Test
+    void emailLoginUsesEmailIndex() {
+        userRepository.findWithRolesByLogin("user42@example.com");
+
+        assertThat(explainLastStatement("user42@example.com"))
+                .contains(indexOn("email"))
+                .doesNotContain("Seq Scan on users");
+    }
+
+    @Test
+    void registrationCheckUsesBothLowerIndexes() {
+        userRepository.findUsernameOrEmailTaken("NewUser", "NewUser@example.com");
+
+        assertThat(explainLastStatement("NewUser", "NewUser@example.com"))
+                .contains("idx_users_username_lower")
+                .contains("idx_users_email_lower")
+                .doesNotContain("Seq Scan on users");
+    }
+
+    @Test
+    void loginMatchesExactlyWhenAccountsDifferOnlyInCase() {
+        assertThat(userRepository.findWithRolesByLogin("Alice")).get()
+                .extracting(User::getEmail).isEqualTo("alice.upper@example.com");
+        assertThat(userRepository.findWithRolesByLogin("alice")).get()
+                .extracting(User::getEmail).isEqualTo("alice.lower@example.com");
+        assertThat(userRepository.findWithRolesByLogin("ALICE")).isEmpty();
+    }
+
+    @Test
+    void loginWithAtSignFallsBackToUsername() {
+        assertThat(userRepository.findWithRolesByLogin("legacy@host")).get()
+                .extracting(User::getEmail).isEqualTo("legacy@example.com");
+        assertThat(userRepository.findWithRolesByLogin("legacy@example.com")).get()
+                .extracting(User::getUsername).isEqualTo("legacy@host");
+    }
+
+    private static User user(String username, String email) {
+        User user = User.builder()
+                .username(username)
+                .email(email)
+                .password("x")
+                .firstName("First")
+                .lastName("Last")
+                .build();
+        user.addRole(Role.ROLE_USER);
+        return user;
+    }
+
+    private String indexOn(String column) {
+        return jdbcTemplate.queryForObject(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'users' AND indexdef LIKE ?",
+                String.class, "%(" + column + ")");
+    }
+
+    private String explainLastStatement(Object... parameters) {
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertThat(statements).isNotEmpty();
+        String sql = statements.get(statements.size() - 1);
+
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+    }
+
+    /**
+     * Records the SQL Hibernate sends, unchanged
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
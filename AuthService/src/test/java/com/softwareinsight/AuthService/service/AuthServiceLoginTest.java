@@ -0,0 +1,55 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.config.JwtConfig;
+import com.softwareinsight.AuthService.dto.Request.LoginRequest;
+import com.softwareinsight.AuthService.dto.Response.AuthResponse;
+import com.softwareinsight.AuthService.entity.Role;
+import com.softwareinsight.AuthService.entity.User;
+import com.softwareinsight.AuthService.repository.UserRepository;
+import io.jsonwebtoken.io.Encoders;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.security.SecureRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuthServiceLoginTest {
+
+    @Test
+    void loginBuildsResponseFromThePrincipalWithoutAnotherQuery() {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(Encoders.BASE64.encode(keyBytes));
+        jwtConfig.setExpiration(60_000L);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        JwtService jwtService = new JwtService(jwtConfig, new JwtSigningKeys(jwtConfig));
+        AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+
+        User user = User.builder().id(42L).username("alice").email("alice@example.com")
+                .firstName("Alice").lastName("Smith").password("hash").build();
+        user.addRole(Role.ROLE_USER);
+        AuthenticatedUser principal = new AuthenticatedUser(user);
+        when(authenticationManager.authenticate(any())).thenReturn(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+
+        RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+        when(refreshTokenService.issue(user)).thenReturn("refresh-token");
+
+        AuthService authService = new AuthService(userRepository, null, jwtService, authenticationManager,
+                null, jwtConfig, null, refreshTokenService);
+        AuthResponse response = authService.login(new LoginRequest("alice", "secret"));
+
+        assertThat(response.getUserId()).isEqualTo(42L);
+        assertThat(response.getRefreshToken()).isEqualTo("refresh-token");
+        assertThat(response.getExpiresIn()).isEqualTo(60_000L);
+        assertThat(jwtService.extractValidClaims(response.getAccessToken()).get(JwtService.CLAIM_USER_ID, Long.class))
+                .isEqualTo(42L);
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,127 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.config.JwtConfig;
+import com.softwareinsight.AuthService.entity.Role;
+import com.softwareinsight.AuthService.entity.User;
+import com.softwareinsight.AuthService.repository.UserRepository;
+import io.jsonwebtoken.io.Encoders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuthServiceValidateTokenTest {
+
+    private UserRepository userRepository;
+    private JwtService jwtService;
+    private AccountLockoutRegistry lockoutRegistry;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(Encoders.BASE64.encode(keyBytes));
+        jwtConfig.setExpiration(60_000L);
+
+        userRepository = mock(UserRepository.class);
+        jwtService = new JwtService(jwtConfig, new JwtSigningKeys(jwtConfig));
+        lockoutRegistry = new AccountLockoutRegistry(userRepository);
+        authService = new AuthService(userRepository, null, jwtService, null, null, jwtConfig, lockoutRegistry, null);
+    }
+
+    @Test
+    void validTokenIsAnsweredFromClaimsWithoutDatabase() {
+        String token = jwtService.generateToken(user());
+
+        Map<String, Object> response = authService.validateToken(token);
+
+        assertThat(response)
+                .containsEntry("valid", true)
+                .containsEntry("username", "alice")
+                .containsEntry("userId", 42L)
+                .containsEntry("email", "alice@example.com")
+                .containsEntry("roles", Set.of("ROLE_USER"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void lockedAccountIsRejected() {
+        String token = jwtService.generateToken(user());
+        when(userRepository.findDisabledOrLockedUsernames()).thenReturn(List.of("alice"));
+        lockoutRegistry.refresh();
+
+        assertThat(authService.validateToken(token)).containsEntry("valid", false);
+    }
+
+    @Test
+    void tokenWithoutUserIdFallsBackToDatabase() {
+        UserDetails details =
+                org.springframework.security.core.userdetails.User.withUsername("alice")
+                        .password("x")
+                        .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER")))
+                        .build();
+        String legacyToken = jwtService.generateToken(details);
+        when(userRepository.findAllWithRolesByUsernameIn(any())).thenReturn(List.of(user()));
+
+        assertThat(authService.validateToken(legacyToken))
+                .containsEntry("valid", true)
+                .containsEntry("userId", 42L);
+        verify(userRepository).findAllWithRolesByUsernameIn(Set.of("alice"));
+    }
+
+    @Test
+    void batchReturnsResultsInOrderWithOneUserQuery() {
+        UserDetails bob = org.springframework.security.core.userdetails.User.withUsername("bob")
+                .password("x")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .build();
+        UserDetails carol = org.springframework.security.core.userdetails.User.withUsername("carol")
+                .password("x")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .build();
+        String alice = jwtService.generateToken(user());
+        String bobLegacy = jwtService.generateToken(bob);
+        String carolLegacy = jwtService.generateToken(carol);
+        when(userRepository.findAllWithRolesByUsernameIn(any())).thenReturn(List.of(
+                User.builder().id(2L).username("bob").email("bob@example.com").build(),
+                User.builder().id(3L).username("carol").email("carol@example.com").build()));
+
+        List<Map<String, Object>> results = authService.validateTokens(
+                List.of(alice, "garbage", bobLegacy, carolLegacy, alice));
+
+        assertThat(results).extracting(r -> r.get("valid")).containsExactly(true, false, true, true, true);
+        assertThat(results).extracting(r -> r.get("userId")).containsExactly(42L, null, 2L, 3L, 42L);
+        verify(userRepository, times(1)).findAllWithRolesByUsernameIn(Set.of("bob", "carol"));
+    }
+
+    @Test
+    void tamperedTokenIsInvalid() {
+        String token = jwtService.generateToken(user()) + "x";
+
+        assertThat(authService.validateToken(token)).containsEntry("valid", false);
+    }
+
+    private static User user() {
+        User user = User.builder()
+                .id(42L)
+                .username("alice")
+                .email("alice@example.com")
+                .firstName("Alice")
+                .lastName("Smith")
+                .build();
+        user.addRole(Role.ROLE_USER);
+        return user;
+    }
+}
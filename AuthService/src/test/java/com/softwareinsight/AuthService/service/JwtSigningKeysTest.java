@@ -0,0 +1,123 @@
+package com.softwareinsight.AuthService.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softwareinsight.AuthService.config.JwtConfig;
+import com.softwareinsight.AuthService.entity.Role;
+import com.softwareinsight.AuthService.entity.User;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.jackson.io.JacksonSerializer;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtSigningKeysTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {JwtSigningKeys.ES256, JwtSigningKeys.EDDSA})
+    void asymmetricTokensVerifyWithThePublishedKeyAlone(String algorithm) throws Exception {
+        JwtConfig jwtConfig = config(algorithm);
+        JwtSigningKeys signingKeys = new JwtSigningKeys(jwtConfig);
+        String token = new JwtService(jwtConfig, signingKeys).generateToken(user());
+
+        // Round-trip the JWK set through JSON, as a remote verifier would see it
+        String json = new ObjectMapper().writeValueAsString(signingKeys.jwkSet());
+        JwkSet jwkSet = Jwks.setParser().build().parse(json);
+        assertThat(json).doesNotContain("\"d\"");
+        assertThat(jwkSet.getKeys()).hasSize(1);
+
+        PublicKey publicKey = (PublicKey) jwkSet.getKeys().iterator().next().toKey();
+        String subject = Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(token).getPayload().getSubject();
+        assertThat(subject).isEqualTo("alice");
+    }
+
+    @Test
+    void configuredKeyIsUsedAndPreviousKeysStillVerify() {
+        KeyPair current = Jwts.SIG.ES256.keyPair().build();
+        KeyPair previous = Jwts.SIG.ES256.keyPair().build();
+
+        JwtConfig jwtConfig = config(JwtSigningKeys.ES256);
+        jwtConfig.getSigning().setJwk(privateJwkJson(current, "current"));
+        jwtConfig.getSigning().setPreviousJwks(List.of(privateJwkJson(previous, "previous")));
+        JwtService jwtService = new JwtService(jwtConfig, new JwtSigningKeys(jwtConfig));
+
+        String issued = jwtService.generateToken(user());
+        String signedWithPrevious = Jwts.builder()
+                .header().keyId("previous").and()
+                .subject("bob")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(previous.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+
+        String header = new String(Decoders.BASE64URL.decode(issued.substring(0, issued.indexOf('.'))),
+                StandardCharsets.UTF_8);
+        assertThat(header).contains("\"kid\":\"current\"");
+        assertThat(jwtService.extractValidClaims(issued).getSubject()).isEqualTo("alice");
+        assertThat(jwtService.extractValidClaims(signedWithPrevious).getSubject()).isEqualTo("bob");
+    }
+
+    @Test
+    void legacyHmacTokensVerifyOnlyWhileExplicitlyAccepted() {
+        JwtConfig hmacConfig = config(JwtSigningKeys.HS256);
+        String legacy = new JwtService(hmacConfig, new JwtSigningKeys(hmacConfig)).generateToken(user());
+
+        JwtConfig asymmetric = config(JwtSigningKeys.EDDSA);
+        asymmetric.setSecret(hmacConfig.getSecret());
+        JwtService rejecting = new JwtService(asymmetric, new JwtSigningKeys(asymmetric));
+        assertThatThrownBy(() -> rejecting.extractValidClaims(legacy)).isInstanceOf(JwtException.class);
+
+        asymmetric.getSigning().setAcceptLegacyHs256(true);
+        assertThat(new JwtService(asymmetric, new JwtSigningKeys(asymmetric)).extractValidClaims(legacy).getSubject())
+                .isEqualTo("alice");
+
+        asymmetric.setSecret(null);
+        JwtService withoutSecret = new JwtService(asymmetric, new JwtSigningKeys(asymmetric));
+        assertThatThrownBy(() -> withoutSecret.extractValidClaims(legacy)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void hmacModePublishesNoKeys() {
+        assertThat(new JwtSigningKeys(config(JwtSigningKeys.HS256)).jwkSet().get("keys")).asList().isEmpty();
+    }
+
+    private static JwtConfig config(String algorithm) {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(Encoders.BASE64.encode(keyBytes));
+        jwtConfig.setExpiration(60_000L);
+        jwtConfig.getSigning().setAlgorithm(algorithm);
+        return jwtConfig;
+    }
+
+    private static String privateJwkJson(KeyPair keyPair, String kid) {
+        // jjwt's serializer writes the private parameters that Jwk.toString()/Jackson redact
+        PrivateJwk<?, ?, ?> jwk = Jwks.builder().keyPair(keyPair).id(kid).build();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new JacksonSerializer<Map<String, ?>>().serialize(jwk, json);
+        return json.toString(StandardCharsets.UTF_8);
+    }
+
+    private static User user() {
+        User user = User.builder().id(42L).username("alice").email("alice@example.com").build();
+        user.addRole(Role.ROLE_USER);
+        return user;
+    }
+}
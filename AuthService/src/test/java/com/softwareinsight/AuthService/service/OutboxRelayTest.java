@@ -0,0 +1,71 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.entity.OutboxEvent;
+import com.softwareinsight.AuthService.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxRelay relay = new OutboxRelay(repository, kafkaTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry,
+            true, 10, Duration.ofSeconds(1), Duration.ofDays(1));
+
+    @Test
+    void deliveredRowsAreMarkedSentAndFailedKeysAreHeldBack() {
+        when(repository.findBySentAtIsNullOrderByIdAsc(Limit.of(10))).thenReturn(List.of(
+                event(1L, "7", "first"),
+                event(2L, "8", "fails"),
+                event(3L, "8", "after-failure"),
+                event(4L, "9", "other")));
+        when(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(anyString(), anyString(), eq("fails")))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        int relayed = relay.relayBatch();
+
+        assertThat(relayed).isZero();
+        verify(repository).markSent(eq(List.of(1L, 4L)), any());
+        verify(repository).markFailed(List.of(2L, 3L));
+        assertThat(meterRegistry.get("kafka.producer.send.latency").tag("topic", "user-events").timer().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void emptyOutboxSendsNothing() {
+        when(repository.findBySentAtIsNullOrderByIdAsc(Limit.of(10))).thenReturn(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private static OutboxEvent event(Long id, String key, String payload) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(UserEventOutbox.USER_EVENTS_TOPIC)
+                .key(key)
+                .eventType("USER_CREATED")
+                .payload(payload)
+                .build();
+    }
+}
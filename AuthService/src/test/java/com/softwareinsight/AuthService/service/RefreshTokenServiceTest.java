@@ -0,0 +1,84 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.config.JwtConfig;
+import com.softwareinsight.AuthService.entity.RefreshToken;
+import com.softwareinsight.AuthService.entity.User;
+import com.softwareinsight.AuthService.exceptions.InvalidRefreshTokenException;
+import com.softwareinsight.AuthService.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private final Map<String, RefreshToken> tokensByHash = new HashMap<>();
+    private RefreshTokenRepository repository;
+    private RefreshTokenService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenRepository.class);
+        when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            tokensByHash.put(token.getTokenHash(), token);
+            return token;
+        });
+        when(repository.findForRotation(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(tokensByHash.get(invocation.<String>getArgument(0))));
+
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setRefreshExpiration(60_000L);
+        service = new RefreshTokenService(repository, jwtConfig);
+        user = User.builder().id(1L).username("alice").email("alice@example.com").build();
+    }
+
+    @Test
+    void rotationRevokesThePresentedTokenAndIssuesANewOneInTheSameFamily() {
+        String issued = service.issue(user);
+        RefreshToken stored = tokensByHash.values().iterator().next();
+
+        RefreshTokenService.Rotation rotation = service.rotate(issued);
+
+        assertThat(rotation.user()).isSameAs(user);
+        assertThat(rotation.refreshToken()).isNotEqualTo(issued);
+        assertThat(stored.getRevokedAt()).isNotNull();
+        assertThat(stored.getTokenHash()).isNotEqualTo(issued);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues().get(1).getFamily()).isEqualTo(stored.getFamily());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheFamily() {
+        String issued = service.issue(user);
+        String family = tokensByHash.values().iterator().next().getFamily();
+        service.rotate(issued);
+
+        assertThatThrownBy(() -> service.rotate(issued)).isInstanceOf(InvalidRefreshTokenException.class);
+        verify(repository).revokeFamily(eq(family), any(LocalDateTime.class));
+    }
+
+    @Test
+    void expiredAndUnknownTokensAreRejected() {
+        String issued = service.issue(user);
+        tokensByHash.values().iterator().next().setExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+        assertThatThrownBy(() -> service.rotate(issued)).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> service.rotate("unknown")).isInstanceOf(InvalidRefreshTokenException.class);
+        verify(repository, times(1)).save(any());
+    }
+}
@@ -0,0 +1,53 @@
+package com.softwareinsight.AuthService.service;
+
+import com.softwareinsight.AuthService.entity.User;
+import com.softwareinsight.AuthService.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserDetailsServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final UserDetailsServiceImpl service = new UserDetailsServiceImpl(userRepository, transactionManager);
+
+    private final AuthenticatedUser alice = new AuthenticatedUser(
+            User.builder().id(42L).username("alice").password("{bcrypt}old").build());
+
+    @Test
+    void upgradeRunsInItsOwnTransaction() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userRepository.updatePassword("alice", "{argon2}new")).thenReturn(1);
+
+        UserDetails upgraded = service.updatePassword(alice, "{argon2}new");
+
+        assertThat(upgraded.getPassword()).isEqualTo("{argon2}new");
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().getPropagationBehavior())
+                .isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void failedUpgradeIsRolledBackAloneAndDoesNotFailLogin() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userRepository.updatePassword(any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        UserDetails result = service.updatePassword(alice, "{argon2}new");
+
+        assertThat(result).isSameAs(alice);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+}
@@ -27,9 +27,9 @@ public class GatewayConfig {
                 // Add custom headers to all auth requests
                 .route("auth-service-custom", r -> r
                         .path("/api/v1/auth/**")
+                        // X-Response-Time is set per request by TimingFilter
                         .filters(f -> f
                                 .addRequestHeader("X-Gateway", "API-Gateway")
-                                .addResponseHeader("X-Response-Time", String.valueOf(System.currentTimeMillis()))
                         )
                         .uri("lb://AUTHSERVICE")  // Use Eureka service name
                 )
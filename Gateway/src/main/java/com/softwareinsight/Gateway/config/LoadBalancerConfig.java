@@ -0,0 +1,16 @@
+package com.softwareinsight.Gateway.config;
+
+import com.softwareinsight.Gateway.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Load Balancer Configuration
+ *
+ * Every lb:// service (AUTHSERVICE, USERS-SERVICE, ...) uses LatencyAwareLoadBalancer
+ * instead of Spring Cloud LoadBalancer's round robin
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
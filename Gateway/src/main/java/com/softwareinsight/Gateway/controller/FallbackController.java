@@ -1,20 +1,21 @@
 package com.softwareinsight.Gateway.controller;
 
+import com.softwareinsight.Gateway.util.JsonErrorResponses;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
 
 /**
  * Fallback Controller
  *
  * Provides fallback responses when circuit breakers are triggered
+ * Routes in application.yaml use FallbackResponseFilter instead; these endpoints remain
+ * for CircuitBreaker filters configured with fallbackUri: forward:/fallback/...
  * Design Pattern: Fallback Pattern / Circuit Breaker Pattern
  */
 @RestController
@@ -22,43 +23,32 @@ import java.util.Map;
 @Slf4j
 public class FallbackController {
 
+    private static final ByteBuffer AUTH_FALLBACK =
+            JsonErrorResponses.fallbackPrefix("Auth Service is temporarily unavailable. Please try again later.");
+    private static final ByteBuffer USERS_FALLBACK =
+            JsonErrorResponses.fallbackPrefix("Users Service is temporarily unavailable. Please try again later.");
+
     @GetMapping("/auth")
-    public ResponseEntity<Map<String, Object>> authFallback() {
-        log.warn("Auth Service Circuit Breaker activated - fallback triggered");
-        return createFallbackResponse("Auth Service is temporarily unavailable. Please try again later.");
+    public Mono<Void> authFallback(ServerHttpResponse response) {
+        log.debug("Auth Service Circuit Breaker activated - fallback triggered");
+        return JsonErrorResponses.writeFallback(response, AUTH_FALLBACK);
     }
 
     @GetMapping("/users")
-    public ResponseEntity<Map<String, Object>> usersFallback() {
-        log.warn("Users Service Circuit Breaker activated - fallback triggered");
-        return createFallbackResponse("Users Service is temporarily unavailable. Please try again later.");
+    public Mono<Void> usersFallback(ServerHttpResponse response) {
+        log.debug("Users Service Circuit Breaker activated - fallback triggered");
+        return JsonErrorResponses.writeFallback(response, USERS_FALLBACK);
     }
 
 //    @GetMapping("/orders")
-//    public ResponseEntity<Map<String, Object>> ordersFallback() {
-//        log.warn("Orders Service Circuit Breaker activated - fallback triggered");
-//        return createFallbackResponse("Orders Service is temporarily unavailable. Please try again later.");
+//    public Mono<Void> ordersFallback(ServerHttpResponse response) {
+//        log.debug("Orders Service Circuit Breaker activated - fallback triggered");
+//        return JsonErrorResponses.writeFallback(response, ORDERS_FALLBACK);
 //    }
 //
 //    @GetMapping("/payments")
-//    public ResponseEntity<Map<String, Object>> paymentsFallback() {
-//        log.warn("Payments Service Circuit Breaker activated - fallback triggered");
-//        return createFallbackResponse("Payments Service is temporarily unavailable. Please try again later.");
+//    public Mono<Void> paymentsFallback(ServerHttpResponse response) {
+//        log.debug("Payments Service Circuit Breaker activated - fallback triggered");
+//        return JsonErrorResponses.writeFallback(response, PAYMENTS_FALLBACK);
 //    }
-
-    /**
-     * Create a consistent fallback response
-     */
-    private ResponseEntity<Map<String, Object>> createFallbackResponse(String message) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
-        response.put("error", "Service Unavailable");
-        response.put("message", message);
-        response.put("circuitBreakerActivated", true);
-
-        return ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body(response);
-    }
 }
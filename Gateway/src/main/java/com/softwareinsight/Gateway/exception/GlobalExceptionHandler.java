@@ -1,20 +1,16 @@
 package com.softwareinsight.Gateway.exception;
 
+import com.softwareinsight.Gateway.util.JsonErrorResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-
 /**
  * Global Exception Handler for Gateway
  *
@@ -34,31 +30,20 @@ public class GlobalExceptionHandler implements ErrorWebExceptionHandler {
             return Mono.error(ex);
         }
 
-        // Log error
-        log.error("Error occurred: {}", ex.getMessage(), ex);
-
         // Set a status code
         HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
         if (ex instanceof ResponseStatusException) {
             status = HttpStatus.valueOf(((ResponseStatusException) ex).getStatusCode().value());
         }
 
-        response.setStatusCode(status);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        // Create error response
-        String errorMessage = String.format(
-                "{\"timestamp\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\",\"path\":\"%s\"}",
-                LocalDateTime.now(),
-                status.value(),
-                status.getReasonPhrase(),
-                ex.getMessage(),
-                exchange.getRequest().getPath()
-        );
-
-        byte[] bytes = errorMessage.getBytes(StandardCharsets.UTF_8);
-        DataBuffer buffer = response.bufferFactory().wrap(bytes);
+        // Log error - stack traces only for server errors, client errors are routine
+        if (status.is5xxServerError()) {
+            log.error("Error occurred: {}", ex.getMessage(), ex);
+        } else {
+            log.debug("Request failed with {}: {}", status.value(), ex.getMessage());
+        }
 
-        return response.writeWith(Mono.just(buffer));
+        // Pre-encoded body with the message and path patched in (JSON-escaped)
+        return JsonErrorResponses.writeError(response, status, ex.getMessage(), exchange.getRequest().getPath().value());
     }
 }
\ No newline at end of file
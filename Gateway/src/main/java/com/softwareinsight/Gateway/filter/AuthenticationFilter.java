@@ -1,9 +1,17 @@
 package com.softwareinsight.Gateway.filter;
 
-import com.softwareinsight.Gateway.util.JwtUtil;
+import com.softwareinsight.Gateway.util.InternalAuthSigner;
+import com.softwareinsight.Gateway.util.JwksKeyCache;
+import com.softwareinsight.Gateway.util.PublicPathMatcher;
+import com.softwareinsight.Gateway.util.TokenPrincipal;
+import com.softwareinsight.Gateway.util.UnknownSigningKeyException;
+import com.softwareinsight.Gateway.util.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -13,6 +21,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Authentication Filter
  * Design Patterns:
@@ -23,25 +34,52 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
     
+    /**
+     * Exchange attribute holding the verified TokenPrincipal, e.g. for rate limiting per user
+     */
+    public static final String PRINCIPAL_ATTRIBUTE = AuthenticationFilter.class.getName() + ".principal";
+
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private InternalAuthSigner internalAuthSigner;
+
+    @Autowired
+    private JwksKeyCache jwksKeyCache;
 
     public AuthenticationFilter() {
         super(Config.class);
     }
 
+    /**
+     * Allows the shortcut form: AuthenticationFilter=/api/v1/users/health,/api/v1/users/public/**
+     */
+    @Override
+    public ShortcutType shortcutType() {
+        return ShortcutType.GATHER_LIST;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("publicPaths");
+    }
+
     @Override
     public GatewayFilter apply(Config config) {
+        // Compiled once per route, not per request
+        PublicPathMatcher publicPaths = PublicPathMatcher.compile(config.getPublicPaths());
+
         return (exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
-            String path = request.getPath().toString();
+            String path = request.getPath().value();
 
             log.debug("Authentication filter executed for path: {}", path);
 
             // Skip authentication for public endpoints
-            if (isPublicEndpoint(path)) {
+            if (publicPaths.matches(path)) {
                 log.debug("Public endpoint detected, skipping authentication: {}", path);
-                return chain.filter(exchange);
+                return chain.filter(withoutIdentityHeaders(exchange));
             }
 
             // Check if Authorization header exists
@@ -59,44 +97,82 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
             // Extract token
             String token = authHeader.substring(7);
 
-            try {
-                // Validate token
-                if (!jwtUtil.validateToken(token)) {
-                    return onError(exchange, "Invalid or expired token", HttpStatus.UNAUTHORIZED);
-                }
-
-                // Extract user information
-                String username = jwtUtil.extractUsername(token);
-                Object roles = jwtUtil.extractRoles(token);
-
-                log.debug("Token validated for user: {}", username);
-
-                // Add user information to request headers for downstream services
-                // This allows services to know who the authenticated user is without validating token again
-                ServerHttpRequest modifiedRequest = request.mutate()
-                        .header("X-User-Username", username)
-                        .header("X-User-Roles", roles != null ? roles.toString() : "")
-                        .build();
-
-                return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            return authenticate(exchange, chain, token, true);
+        };
+    }
 
-            } catch (Exception e) {
-                log.error("Error validating token: {}", e.getMessage());
-                return onError(exchange, "Token validation failed", HttpStatus.UNAUTHORIZED);
+    /**
+     * Verify the token and forward the request with identity headers
+     *
+     * @param refreshKeysOnMiss whether an unknown kid may trigger a (non-blocking) JWKS refresh and a retry
+     */
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain,
+                                    String token, boolean refreshKeysOnMiss) {
+        ServerHttpRequest request = exchange.getRequest();
+
+        TokenPrincipal principal;
+        try {
+            // Verify signature and expiration, or reuse the result for a token seen before
+            principal = verifiedTokenCache.getOrVerify(token);
+        } catch (UnknownSigningKeyException e) {
+            if (refreshKeysOnMiss) {
+                // Signing key rotated since the last fetch - reload the key set, then try once more
+                log.debug("{} - refreshing signing keys", e.getMessage());
+                return jwksKeyCache.refresh()
+                        .then(Mono.defer(() -> authenticate(exchange, chain, token, false)));
             }
-        };
+            log.debug("Invalid token: {}", e.getMessage());
+            return onError(exchange, "Invalid or expired token", HttpStatus.UNAUTHORIZED);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid token: {}", e.getMessage());
+            return onError(exchange, "Invalid or expired token", HttpStatus.UNAUTHORIZED);
+        } catch (Exception e) {
+            log.error("Error validating token: {}", e.getMessage());
+            return onError(exchange, "Token validation failed", HttpStatus.UNAUTHORIZED);
+        }
+
+        String username = principal.username();
+        String userId = principal.userId() != null ? principal.userId().toString() : "";
+        String roles = principal.rolesHeader();
+
+        log.debug("Token validated for user: {}", username);
+        exchange.getAttributes().put(PRINCIPAL_ATTRIBUTE, principal);
+
+        // Add user information to request headers for downstream services
+        // This allows services to know who the authenticated user is without validating token again;
+        // the signed marker lets them tell these headers apart from client-supplied ones
+        ServerHttpRequest modifiedRequest = request.mutate()
+                .header(InternalAuthSigner.HEADER_USERNAME, username)
+                .header(InternalAuthSigner.HEADER_USER_ID, userId)
+                .header(InternalAuthSigner.HEADER_ROLES, roles)
+                .header(InternalAuthSigner.HEADER_MARKER, internalAuthSigner.sign(username, userId, roles,
+                        request.getMethod().name(), request.getPath().value(), token))
+                .build();
+
+        return chain.filter(exchange.mutate().request(modifiedRequest).build());
     }
 
     /**
-     * Check if the endpoint is public (doesn't require authentication)
+     * Drop identity headers a client may have sent itself
      */
-    private boolean isPublicEndpoint(String path) {
-        // Define public endpoints that don't require authentication
-        return path.contains("/health") ||
-               path.contains("/actuator") ||
-               path.endsWith("/register") ||
-               path.endsWith("/login") ||
-               path.contains("/public");
+    private ServerWebExchange withoutIdentityHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (!headers.containsKey(InternalAuthSigner.HEADER_MARKER)
+                && !headers.containsKey(InternalAuthSigner.HEADER_USERNAME)
+                && !headers.containsKey(InternalAuthSigner.HEADER_USER_ID)
+                && !headers.containsKey(InternalAuthSigner.HEADER_ROLES)) {
+            return exchange;
+        }
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(h -> {
+                    h.remove(InternalAuthSigner.HEADER_MARKER);
+                    h.remove(InternalAuthSigner.HEADER_USERNAME);
+                    h.remove(InternalAuthSigner.HEADER_USER_ID);
+                    h.remove(InternalAuthSigner.HEADER_ROLES);
+                })
+                .build();
+        return exchange.mutate().request(request).build();
     }
 
     /**
@@ -111,7 +187,11 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
         return response.setComplete();
     }
 
+    @Data
     public static class Config {
-        // Configuration properties if needed
+        /**
+         * Path patterns on this route that skip authentication (see PublicPathMatcher for the syntax)
+         */
+        private List<String> publicPaths = new ArrayList<>();
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.softwareinsight.Gateway.filter;
+
+import com.softwareinsight.Gateway.util.JsonErrorResponses;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Fallback Response Filter
+ *
+ * Answers with a pre-encoded 503 body when anything after it on the route fails - an open circuit,
+ * a time-out or an unreachable service. Listed before CircuitBreaker (without a fallbackUri), it replaces
+ * the forward:/fallback/... dispatch, which re-ran handler mapping and the global filters for every
+ * rejected request.
+ *
+ * Design Pattern: Fallback Pattern / Circuit Breaker Pattern
+ */
+@Component
+@Slf4j
+public class FallbackResponseFilter extends AbstractGatewayFilterFactory<FallbackResponseFilter.Config> {
+
+    public FallbackResponseFilter() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("message");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Encoded once per route
+        ByteBuffer body = JsonErrorResponses.fallbackPrefix(config.getMessage());
+
+        return (exchange, chain) -> chain.filter(exchange)
+                .onErrorResume(e -> {
+                    if (exchange.getResponse().isCommitted()) {
+                        return Mono.error(e);
+                    }
+                    log.debug("Fallback for {}: {}", exchange.getRequest().getPath().value(), e.toString());
+                    return JsonErrorResponses.writeFallback(exchange.getResponse(), body);
+                });
+    }
+
+    @Data
+    public static class Config {
+        private String message = "Service is temporarily unavailable. Please try again later.";
+    }
+}
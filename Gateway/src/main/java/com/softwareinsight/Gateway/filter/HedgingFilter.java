@@ -0,0 +1,560 @@
+package com.softwareinsight.Gateway.filter;
+
+import com.softwareinsight.Gateway.loadbalancer.InstanceStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelOption;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.TimeoutException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Hedging Filter
+ *
+ * For GET and HEAD requests on an lb:// route: if the chosen instance has not answered within the
+ * route's recent latency percentile (clamped to min-delay..max-delay), or has already failed, a second
+ * request goes to a different instance. The first response to arrive is streamed to the client.
+ * A hedge that loses is cancelled; a first request that loses runs on for at most max-delay, so the
+ * percentile is taken from first-request latency rather than the shorter winning one. If it has no
+ * response headers by then it is cancelled too and its elapsed time is recorded instead (censored).
+ * Each request adds budget-ratio to a hedge budget (at most max-burst hedges), and a hedge is only
+ * sent while the budget covers it, so hedging adds at most that share of extra load.
+ *
+ * Runs in place of NettyRoutingFilter, after the load balancer has picked the first instance, and
+ * calls upstream the same way: the Gateway HttpClient with the route's connect-timeout and
+ * response-timeout metadata (else spring.cloud.gateway.httpclient.response-timeout) per attempt,
+ * PreserveHostHeader, and CLIENT_RESPONSE_ATTR set to the winning response.
+ * Metrics: gateway.hedging.latency (first request), gateway.hedging.hedges and gateway.hedging.hedges.won.
+ *
+ * InstanceStats are recorded per call rather than per exchange: the first request is taken over from
+ * LoadBalancerStatsFilter, each call is sampled when it finishes (a losing call at its response headers,
+ * errors and 5xx with at least failure-penalty), and a cancelled hedge only leaves the in-flight count.
+ *
+ * Design Pattern: Hedged Requests
+ */
+@Component
+@Slf4j
+public class HedgingFilter extends AbstractGatewayFilterFactory<HedgingFilter.Config> {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long CREDIT = 1_000;
+
+    private final HttpClient httpClient;
+    private final HttpClientProperties httpClientProperties;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final ObjectProvider<ReactiveLoadBalancer.Factory<ServiceInstance>> loadBalancers;
+    private final InstanceStats instanceStats;
+    private final MeterRegistry meterRegistry;
+    private final long failurePenaltyNanos;
+
+    public HedgingFilter(
+            HttpClient httpClient,
+            HttpClientProperties httpClientProperties,
+            ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+            ObjectProvider<ReactiveLoadBalancer.Factory<ServiceInstance>> loadBalancers,
+            InstanceStats instanceStats,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.load-balancer.latency-aware.failure-penalty:1s}") Duration failurePenalty) {
+        super(Config.class);
+        this.httpClient = httpClient;
+        this.httpClientProperties = httpClientProperties;
+        this.headersFilters = headersFilters;
+        this.loadBalancers = loadBalancers;
+        this.instanceStats = instanceStats;
+        this.meterRegistry = meterRegistry;
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RouteState state = new RouteState(config, meterRegistry);
+
+        GatewayFilter filter = (exchange, chain) -> {
+            URI primary = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (isAlreadyRouted(exchange) || primary == null
+                    || !("http".equals(primary.getScheme()) || "https".equals(primary.getScheme()))
+                    || !(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method))) {
+                return chain.filter(exchange);
+            }
+
+            setAlreadyRouted(exchange);
+            state.deposit();
+            return hedged(exchange, primary, state);
+        };
+
+        // Directly before NettyRoutingFilter, i.e. after load balancing and UpstreamTimingFilter
+        return new OrderedGatewayFilter(filter, NettyRoutingFilter.ORDER - 1);
+    }
+
+    private Mono<Void> hedged(ServerWebExchange exchange, URI primary, RouteState state) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        Attempts attempts = new Attempts(exchange, httpClient(route), responseTimeout(route), requestHeaders(exchange), state);
+
+        Mono<Void> first = primaryAttempt(attempts, primary, primaryCall(exchange, primary, state));
+
+        // Due after the hedge delay, or at once if the first request fails; dropped as soon as a
+        // response arrives, so the timer never holds up the exchange
+        Mono<Void> hedge = Flux.merge(Mono.delay(Duration.ofNanos(state.hedgeDelayNanos())),
+                        attempts.firstFailed.asMono().thenReturn(0L))
+                .takeUntilOther(attempts.decided.asMono())
+                .next()
+                .flatMap(tick -> otherInstance(exchange, primary))
+                .filter(uri -> attempts.winner.get() == null && state.tryWithdraw())
+                .flatMap(uri -> {
+                    log.debug("Hedging {} {} to {}", exchange.getRequest().getMethod(), primary.getPath(), uri.getAuthority());
+                    instanceStats.started(uri.getHost(), uri.getPort());
+                    Call call = new Call(uri, true, null);
+                    // Stop as soon as the first request has won
+                    return attempt(attempts, uri, true, call).flux()
+                            .takeUntilOther(attempts.wonBy(uri))
+                            .then();
+                });
+
+        return Mono.when(first, hedge)
+                .then(Mono.defer(() -> {
+                    Throwable error = attempts.firstError.get();
+                    return exchange.getResponse().isCommitted() || error == null ? Mono.<Void>empty() : Mono.error(error);
+                }));
+    }
+
+    /**
+     * The first request; completes when it has finished or a hedge has won. In the latter case the
+     * call itself goes on in the background until its response headers, for at most max-delay.
+     */
+    private Mono<Void> primaryAttempt(Attempts attempts, URI primary, Call call) {
+        return Mono.defer(() -> {
+            Mono<Void> hedgeWon = attempts.wonBy(primary).then();
+            Mono<Long> givenUp = hedgeWon.then(Mono.delay(attempts.state.config.getMaxDelay()))
+                    .doOnNext(tick -> call.censored());
+            Sinks.Empty<Void> finished = Sinks.empty();
+            Disposable running = attempt(attempts, primary, false, call).flux()
+                    .takeUntilOther(givenUp)
+                    .doFinally(signal -> finished.tryEmitEmpty())
+                    .subscribe();
+            return Mono.firstWithSignal(finished.asMono(), hedgeWon)
+                    .doOnCancel(running::dispose);
+        });
+    }
+
+    /**
+     * Takes the first request over from LoadBalancerStatsFilter, which has already counted it as in flight
+     */
+    private Call primaryCall(ServerWebExchange exchange, URI primary, RouteState state) {
+        ServiceInstance counted = exchange.getAttribute(LoadBalancerStatsFilter.IN_FLIGHT_INSTANCE_ATTR);
+        if (counted == null || !counted.getHost().equals(primary.getHost()) || counted.getPort() != primary.getPort()) {
+            return new Call(primary, false, state.latency);
+        }
+        exchange.getAttributes().remove(LoadBalancerStatsFilter.IN_FLIGHT_INSTANCE_ATTR);
+        return new Call(primary, true, state.latency);
+    }
+
+    /**
+     * One upstream call; the first to receive response headers writes the client response,
+     * a later one is dropped without reading its body
+     */
+    private Mono<Void> attempt(Attempts attempts, URI uri, boolean isHedge, Call call) {
+        ServerWebExchange exchange = attempts.exchange;
+        RouteState state = attempts.state;
+
+        Mono<Upstream> headersReceived = attempts.client
+                .headers(target -> attempts.headers.forEach(target::set))
+                .request(io.netty.handler.codec.http.HttpMethod.valueOf(exchange.getRequest().getMethod().name()))
+                .uri(uri)
+                .responseConnection((response, connection) -> Mono.just(new Upstream(response, connection)))
+                .single();
+        if (attempts.responseTimeout != null) {
+            Duration timeout = attempts.responseTimeout;
+            headersReceived = headersReceived
+                    .timeout(timeout, Mono.error(() -> new TimeoutException("Response took longer than timeout: " + timeout)))
+                    .onErrorMap(TimeoutException.class,
+                            e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e));
+        }
+
+        return headersReceived
+                .flatMap(upstream -> {
+                    call.responded();
+                    boolean failed = upstream.response().status().code() >= 500;
+                    if (!attempts.winner.compareAndSet(null, uri)) {
+                        upstream.connection().dispose();
+                        call.finished(failed);
+                        return Mono.<Void>empty();
+                    }
+                    attempts.decided.tryEmitValue(uri);
+                    if (isHedge) {
+                        state.hedgesWon.increment();
+                    }
+                    exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, uri);
+                    exchange.getAttributes().put(CLIENT_RESPONSE_ATTR, upstream.response());
+                    return writeResponse(exchange, upstream)
+                            .doOnSuccess(done -> call.finished(failed));
+                })
+                .onErrorResume(e -> {
+                    call.finished(true);
+                    attempts.firstError.compareAndSet(null, e);
+                    if (!isHedge) {
+                        attempts.firstFailed.tryEmitEmpty();
+                    }
+                    return Mono.empty();
+                })
+                .doFinally(signal -> call.cancelled());
+    }
+
+    private Mono<Void> writeResponse(ServerWebExchange exchange, Upstream upstream) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = new HttpHeaders();
+        upstream.response().responseHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        if (StringUtils.hasLength(contentType)) {
+            exchange.getAttributes().put(ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentType);
+        }
+
+        response.setStatusCode(HttpStatusCode.valueOf(upstream.response().status().code()));
+        HttpHeaders filtered = HttpHeadersFilter.filter(
+                headersFilters.getIfAvailable(List::of), headers, exchange, HttpHeadersFilter.Type.RESPONSE);
+        if (filtered.containsKey(HttpHeaders.TRANSFER_ENCODING) && filtered.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            filtered.remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        response.getHeaders().putAll(filtered);
+
+        Connection connection = upstream.connection();
+        return response.writeWith(connection.inbound().receive().retain().map(byteBuf -> wrap(byteBuf, response)))
+                .doOnCancel(connection::dispose);
+    }
+
+    private static DataBuffer wrap(ByteBuf byteBuf, ServerHttpResponse response) {
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        if (bufferFactory instanceof NettyDataBufferFactory nettyFactory) {
+            return nettyFactory.wrap(byteBuf);
+        }
+        DataBuffer buffer = bufferFactory.allocateBuffer(byteBuf.readableBytes());
+        buffer.write(byteBuf.nioBuffer());
+        byteBuf.release();
+        return buffer;
+    }
+
+    private HttpHeaders requestHeaders(ServerWebExchange exchange) {
+        HttpHeaders filtered = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange);
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(filtered);
+        headers.remove(HttpHeaders.HOST);
+        if (exchange.getAttributeOrDefault(PRESERVE_HOST_HEADER_ATTRIBUTE, false)) {
+            String host = exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST);
+            if (host != null) {
+                headers.set(HttpHeaders.HOST, host);
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * The Gateway HttpClient with the route's connect-timeout metadata, as NettyRoutingFilter uses it
+     */
+    private HttpClient httpClient(Route route) {
+        Object connectTimeout = route != null ? route.getMetadata().get(CONNECT_TIMEOUT_ATTR) : null;
+        if (connectTimeout == null) {
+            return httpClient;
+        }
+        return httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(toLong(connectTimeout)));
+    }
+
+    /**
+     * The route's response-timeout metadata (negative = none), else the global response timeout
+     */
+    private Duration responseTimeout(Route route) {
+        Object responseTimeout = route != null ? route.getMetadata().get(RESPONSE_TIMEOUT_ATTR) : null;
+        if (responseTimeout != null) {
+            long millis = toLong(responseTimeout);
+            return millis < 0 ? null : Duration.ofMillis(millis);
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+
+    /**
+     * Ask the route's load balancer for an instance other than the one already called
+     */
+    private Mono<URI> otherInstance(ServerWebExchange exchange, URI primary) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        ReactiveLoadBalancer.Factory<ServiceInstance> factory = loadBalancers.getIfAvailable();
+        if (route == null || factory == null || !"lb".equals(route.getUri().getScheme())) {
+            return Mono.empty();
+        }
+
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = factory.getInstance(route.getUri().getHost());
+        if (loadBalancer == null) {
+            return Mono.empty();
+        }
+
+        // Up to three picks - the latency-aware balancer can pick the instance already called again
+        // when it is the cheaper of its two random candidates
+        return Mono.defer(() -> Mono.from(loadBalancer.choose()))
+                .repeat(2)
+                .filter(Response::hasServer)
+                .map(Response::getServer)
+                .filter(instance -> !(instance.getHost().equals(primary.getHost()) && instance.getPort() == primary.getPort()))
+                .next()
+                .map(instance -> UriComponentsBuilder.fromUri(primary)
+                        .scheme(instance.isSecure() ? "https" : "http")
+                        .host(instance.getHost())
+                        .port(instance.getPort())
+                        .build(true)
+                        .toUri());
+    }
+
+    /**
+     * State shared by the attempts of one request
+     */
+    private static final class Attempts {
+        final ServerWebExchange exchange;
+        final HttpClient client;
+        final Duration responseTimeout;
+        final HttpHeaders headers;
+        final RouteState state;
+        final AtomicReference<URI> winner = new AtomicReference<>();
+        final Sinks.One<URI> decided = Sinks.one();
+        final Sinks.Empty<Void> firstFailed = Sinks.empty();
+        final AtomicReference<Throwable> firstError = new AtomicReference<>();
+
+        Attempts(ServerWebExchange exchange, HttpClient client, Duration responseTimeout, HttpHeaders headers,
+                 RouteState state) {
+            this.exchange = exchange;
+            this.client = client;
+            this.responseTimeout = responseTimeout;
+            this.headers = headers;
+            this.state = state;
+        }
+
+        /**
+         * Emits once an attempt other than the one to uri has won; never completes otherwise
+         */
+        Mono<URI> wonBy(URI uri) {
+            return decided.asMono()
+                    .filter(won -> won != uri)
+                    .switchIfEmpty(Mono.never());
+        }
+    }
+
+    private record Upstream(HttpClientResponse response, Connection connection) {
+    }
+
+    /**
+     * One upstream call as recorded in the first-request latency timer (first request only) and in
+     * InstanceStats. The stats are settled once: with a latency sample, or without one when the call
+     * was cancelled before its outcome was known. An untracked call is settled from the start.
+     */
+    private final class Call {
+        private final String host;
+        private final int port;
+        private final Timer firstRequestLatency;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean timed = new AtomicBoolean();
+        private final AtomicBoolean settled;
+
+        Call(URI uri, boolean tracked, Timer firstRequestLatency) {
+            this.host = uri.getHost();
+            this.port = uri.getPort();
+            this.firstRequestLatency = firstRequestLatency;
+            this.settled = new AtomicBoolean(!tracked);
+        }
+
+        void responded() {
+            time();
+        }
+
+        /**
+         * A first request that lost is given up: the time it ran is a lower bound of its latency
+         */
+        void censored() {
+            time();
+            finished(false);
+        }
+
+        void finished(boolean failed) {
+            if (settled.compareAndSet(false, true)) {
+                long latency = System.nanoTime() - start;
+                instanceStats.finished(host, port, failed ? Math.max(latency, failurePenaltyNanos) : latency);
+            }
+        }
+
+        void cancelled() {
+            if (settled.compareAndSet(false, true)) {
+                instanceStats.abandoned(host, port);
+            }
+        }
+
+        private void time() {
+            if (firstRequestLatency != null && timed.compareAndSet(false, true)) {
+                firstRequestLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Latency percentile and hedge budget of one route
+     */
+    static final class RouteState {
+
+        final Timer latency;
+        final Counter hedgesSent;
+        final Counter hedgesWon;
+        private final Config config;
+        private final long deposit;
+        private final long maxCredits;
+        private final AtomicLong credits;
+
+        private volatile long delayNanos;
+        private volatile long delayComputedAt;
+
+        RouteState(Config config, MeterRegistry meterRegistry) {
+            String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+            this.config = config;
+            this.latency = Timer.builder("gateway.hedging.latency")
+                    .description("Time to the response headers of the first request on hedged routes")
+                    .tag("route", routeId)
+                    .publishPercentiles(config.getPercentile())
+                    .distributionStatisticExpiry(config.getWindow())
+                    .register(meterRegistry);
+            this.hedgesSent = Counter.builder("gateway.hedging.hedges")
+                    .description("Hedge requests sent")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            this.hedgesWon = Counter.builder("gateway.hedging.hedges.won")
+                    .description("Hedge requests that answered before the first request")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            this.deposit = Math.round(config.getBudgetRatio() * CREDIT);
+            this.maxCredits = config.getMaxBurst() * CREDIT;
+            this.credits = new AtomicLong(maxCredits);
+            this.delayNanos = config.getMaxDelay().toNanos();
+            this.delayComputedAt = System.nanoTime();
+        }
+
+        void deposit() {
+            credits.getAndUpdate(current -> Math.min(current + deposit, maxCredits));
+        }
+
+        boolean tryWithdraw() {
+            while (true) {
+                long current = credits.get();
+                if (current < CREDIT) {
+                    return false;
+                }
+                if (credits.compareAndSet(current, current - CREDIT)) {
+                    hedgesSent.increment();
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * The configured latency percentile, recomputed at most once a second
+         */
+        long hedgeDelayNanos() {
+            long now = System.nanoTime();
+            if (now - delayComputedAt < DELAY_REFRESH_NANOS) {
+                return delayNanos;
+            }
+            delayComputedAt = now;
+
+            long delay = config.getMaxDelay().toNanos();
+            if (latency.count() >= MIN_SAMPLES) {
+                ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+                if (percentiles.length > 0) {
+                    delay = (long) percentiles[0].value(TimeUnit.NANOSECONDS);
+                }
+            }
+            delayNanos = Math.max(config.getMinDelay().toNanos(), Math.min(delay, config.getMaxDelay().toNanos()));
+            return delayNanos;
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * Latency percentile after which a hedge is sent
+         */
+        private double percentile = 0.95;
+
+        private Duration minDelay = Duration.ofMillis(10);
+
+        /**
+         * Also the delay until enough responses have been seen, and how long a first request
+         * that lost to a hedge may still run
+         */
+        private Duration maxDelay = Duration.ofMillis(500);
+
+        /**
+         * Period over which the percentile is computed
+         */
+        private Duration window = Duration.ofMinutes(1);
+
+        /**
+         * Hedges allowed per request, e.g. 0.1 = at most 10% extra requests
+         */
+        private double budgetRatio = 0.1;
+
+        private long maxBurst = 10;
+    }
+}
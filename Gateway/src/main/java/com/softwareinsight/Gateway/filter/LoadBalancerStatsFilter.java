@@ -0,0 +1,83 @@
+package com.softwareinsight.Gateway.filter;
+
+import com.softwareinsight.Gateway.loadbalancer.InstanceStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Feeds InstanceStats for LatencyAwareLoadBalancer
+ *
+ * Runs right after ReactiveLoadBalancerClientFilter has picked an instance: counts the request
+ * as in flight and records its latency when it completes. Failed calls (errors, 5xx) are recorded
+ * with at least failure-penalty, so an instance that fails fast does not look like the fastest one.
+ * A cancelled exchange (client gone, circuit breaker timeout) leaves no sample: its latency is unknown,
+ * and recording the time until the cancel would make a hung instance look fast.
+ * A filter that calls upstream more than once per exchange (HedgingFilter) takes the request over by
+ * removing IN_FLIGHT_INSTANCE_ATTR and records each of its calls itself.
+ */
+@Component
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The instance counted as in flight for this exchange, while this filter is still to record it
+     */
+    public static final String IN_FLIGHT_INSTANCE_ATTR = LoadBalancerStatsFilter.class.getName() + ".inFlightInstance";
+
+    private final InstanceStats instanceStats;
+    private final long failurePenaltyNanos;
+
+    public LoadBalancerStatsFilter(
+            InstanceStats instanceStats,
+            @Value("${gateway.load-balancer.latency-aware.failure-penalty:1s}") Duration failurePenalty) {
+        this.instanceStats = instanceStats;
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = chosen.getServer();
+        long start = System.nanoTime();
+        instanceStats.started(instance.getHost(), instance.getPort());
+        exchange.getAttributes().put(IN_FLIGHT_INSTANCE_ATTR, instance);
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (!exchange.getAttributes().remove(IN_FLIGHT_INSTANCE_ATTR, instance)) {
+                        return;
+                    }
+                    if (signal == SignalType.CANCEL) {
+                        instanceStats.abandoned(instance.getHost(), instance.getPort());
+                        return;
+                    }
+                    long latency = System.nanoTime() - start;
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    instanceStats.finished(instance.getHost(), instance.getPort(),
+                            failed ? Math.max(latency, failurePenaltyNanos) : latency);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
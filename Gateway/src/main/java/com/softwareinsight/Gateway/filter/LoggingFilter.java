@@ -1,60 +1,107 @@
 package com.softwareinsight.Gateway.filter;
 
+import com.softwareinsight.Gateway.util.Durations;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Global Logging Filter
  * GlobalFilter applies to all routes automatically
  * Ordered.HIGHEST_PRECEDENCE ensures this runs first
+ *
+ * Writes one access-log line per exchange to the "gateway.access" logger, which logback-spring.xml
+ * sends through an async appender so request threads never wait on console I/O. The line is
+ * key=value pairs, so it can be parsed by name:
+ * method=GET path=/api/v1/users/42 status=200 duration_ms=3.215 remote=10.0.0.7 [signal=cancel]
+ *
+ * Only a sample-rate share of successful exchanges is logged; 5xx responses, errors and
+ * cancellations are always logged. The query string is left out (it may carry secrets).
  */
 @Component
 @Slf4j
 public class LoggingFilter implements GlobalFilter, Ordered {
 
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("gateway.access");
+
+    private final boolean enabled;
+    private final double sampleRate;
+
+    public LoggingFilter(
+            @Value("${gateway.access-log.enabled:true}") boolean enabled,
+            @Value("${gateway.access-log.sample-rate:1.0}") double sampleRate) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-
-        // Log request
-        log.info(">>> Request: {} {} from {}",
-                request.getMethod(),
-                request.getURI(),
-                request.getRemoteAddress());
-
-        // Log headers (excluding sensitive ones)
-        request.getHeaders().forEach((name, values) -> {
-            if (!name.equalsIgnoreCase("Authorization")) {
-                log.debug(">>> Header: {} = {}", name, values);
-            }
-        });
-
-        // Record start time
-        long startTime = System.currentTimeMillis();
-
-        return chain.filter(exchange).then(Mono.fromRunnable(() -> {
-            ServerHttpResponse response = exchange.getResponse();
-            long endTime = System.currentTimeMillis();
-            long duration = endTime - startTime;
-
-            // Log response
-            log.info("<<< Response: {} {} - Status: {} - Duration: {}ms",
-                    request.getMethod(),
-                    request.getURI(),
-                    response.getStatusCode(),
-                    duration);
-        }));
+        if (!enabled || !ACCESS_LOG.isInfoEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        // Header dump only when someone actually asked for DEBUG (never the Authorization header)
+        if (log.isDebugEnabled()) {
+            exchange.getRequest().getHeaders().forEach((name, values) -> {
+                if (!HttpHeaders.AUTHORIZATION.equalsIgnoreCase(name)) {
+                    log.debug(">>> Header: {} = {}", name, values);
+                }
+            });
+        }
+
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        long startNanos = System.nanoTime();
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failed = signal != SignalType.ON_COMPLETE || status == null || status.is5xxServerError();
+                    if (sampled || failed) {
+                        ACCESS_LOG.info(accessLine(exchange.getRequest(), status, System.nanoTime() - startNanos, signal));
+                    }
+                });
+    }
+
+    /**
+     * e.g. method=GET path=/api/v1/users/42 status=200 duration_ms=3.215 remote=10.0.0.7
+     */
+    static String accessLine(ServerHttpRequest request, HttpStatusCode status, long durationNanos, SignalType signal) {
+        String path = request.getPath().value();
+        StringBuilder line = new StringBuilder(64 + path.length());
+
+        line.append("method=").append(request.getMethod().name())
+                .append(" path=").append(path)
+                .append(" status=").append(status != null ? status.value() : 0)
+                .append(" duration_ms=");
+
+        Durations.appendMillis(line, durationNanos);
+
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote != null && remote.getAddress() != null) {
+            line.append(" remote=").append(remote.getAddress().getHostAddress());
+        }
+        if (signal != SignalType.ON_COMPLETE) {
+            line.append(" signal=").append(signal);
+        }
+        return line.toString();
     }
 
     @Override
     public int getOrder() {
         return Ordered.HIGHEST_PRECEDENCE;
     }
-}
\ No newline at end of file
+}
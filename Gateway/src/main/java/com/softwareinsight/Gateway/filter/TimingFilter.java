@@ -0,0 +1,202 @@
+package com.softwareinsight.Gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.softwareinsight.Gateway.util.Durations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Per-request latency: response headers and Micrometer timers
+ *
+ * Total time runs from the start of this filter (right after LoggingFilter) to the response commit;
+ * upstream time runs from UpstreamTimingFilter, just before the proxied call, to the same point.
+ * Both are sent as Server-Timing (gateway;dur=..., upstream;dur=...) and X-Response-Time,
+ * and recorded when the exchange completes as timers with percentile histograms:
+ * gateway.route.latency and gateway.route.upstream.latency, tagged route and status (2xx, 4xx, ...).
+ *
+ * With gateway.timing.upstream-tag the timers are also tagged upstream (host:port of the chosen
+ * instance). Instances come and go with discovery, so those timers are kept for at most
+ * max-timers keys and removed from the registry once idle for idle-timeout.
+ */
+@Component
+public class TimingFilter implements GlobalFilter, Ordered {
+
+    static final String START_ATTR = TimingFilter.class.getName() + ".start";
+    static final String UPSTREAM_START_ATTR = TimingFilter.class.getName() + ".upstreamStart";
+    static final String UPSTREAM_END_ATTR = TimingFilter.class.getName() + ".upstreamEnd";
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    public static final String RESPONSE_TIME_HEADER = "X-Response-Time";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean headersEnabled;
+    private final boolean upstreamTag;
+    private final Cache<TimerKey, Timers> timers;
+
+    @Autowired
+    public TimingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.timing.enabled:true}") boolean enabled,
+            @Value("${gateway.timing.headers:true}") boolean headersEnabled,
+            @Value("${gateway.timing.upstream-tag:false}") boolean upstreamTag,
+            @Value("${gateway.timing.max-timers:1000}") long maxTimers,
+            @Value("${gateway.timing.idle-timeout:10m}") Duration idleTimeout) {
+        this(meterRegistry, enabled, headersEnabled, upstreamTag, maxTimers, idleTimeout, System::nanoTime);
+    }
+
+    TimingFilter(MeterRegistry meterRegistry, boolean enabled, boolean headersEnabled, boolean upstreamTag,
+                 long maxTimers, Duration idleTimeout, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.headersEnabled = headersEnabled;
+        this.upstreamTag = upstreamTag;
+        // Evicted timers are removed from the registry on the calling thread; that only happens
+        // when an instance has disappeared or the key limit is reached
+        this.timers = Caffeine.newBuilder()
+                .maximumSize(maxTimers)
+                .expireAfterAccess(idleTimeout)
+                .ticker(nanoClock::getAsLong)
+                .executor(Runnable::run)
+                .evictionListener(this::unregister)
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        long start = System.nanoTime();
+        exchange.getAttributes().put(START_ATTR, start);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            long end = System.nanoTime();
+            Long upstreamStart = exchange.getAttribute(UPSTREAM_START_ATTR);
+            if (upstreamStart != null) {
+                exchange.getAttributes().put(UPSTREAM_END_ATTR, end);
+            }
+            if (headersEnabled) {
+                response.getHeaders().set(SERVER_TIMING_HEADER, serverTiming(end - start, upstreamStart, end));
+                response.getHeaders().set(RESPONSE_TIME_HEADER,
+                        Durations.appendMillis(new StringBuilder(16), end - start).append("ms").toString());
+            }
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, start, System.nanoTime()));
+    }
+
+    /**
+     * e.g. gateway;dur=14.100, upstream;dur=12.345
+     */
+    static String serverTiming(long totalNanos, Long upstreamStart, long end) {
+        StringBuilder value = new StringBuilder(48).append("gateway;dur=");
+        Durations.appendMillis(value, totalNanos);
+        if (upstreamStart != null) {
+            Durations.appendMillis(value.append(", upstream;dur="), end - upstreamStart);
+        }
+        return value.toString();
+    }
+
+    private void record(ServerWebExchange exchange, long start, long end) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        URI upstreamUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+
+        TimerKey key = new TimerKey(
+                route != null ? route.getId() : NONE,
+                statusClass(status),
+                !upstreamTag ? null
+                        : upstreamUrl != null && upstreamUrl.getHost() != null
+                        ? upstreamUrl.getHost() + ':' + upstreamUrl.getPort()
+                        : NONE);
+        Timers forKey = timers.get(key, this::register);
+
+        forKey.total().record(end - start, TimeUnit.NANOSECONDS);
+
+        Long upstreamStart = exchange.getAttribute(UPSTREAM_START_ATTR);
+        Long upstreamEnd = exchange.getAttribute(UPSTREAM_END_ATTR);
+        if (upstreamStart != null) {
+            forKey.upstream().record((upstreamEnd != null ? upstreamEnd : end) - upstreamStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timers register(TimerKey key) {
+        return new Timers(
+                timer("gateway.route.latency", "Time from the Gateway receiving a request to the response commit", key),
+                timer("gateway.route.upstream.latency", "Time spent waiting for the upstream service", key));
+    }
+
+    private Timer timer(String name, String description, TimerKey key) {
+        Timer.Builder builder = Timer.builder(name)
+                .description(description)
+                .tag("route", key.route())
+                .tag("status", key.status());
+        if (key.upstream() != null) {
+            builder.tag("upstream", key.upstream());
+        }
+        return builder
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private void unregister(TimerKey key, Timers evicted, RemovalCause cause) {
+        if (evicted != null) {
+            meterRegistry.remove(evicted.total());
+            meterRegistry.remove(evicted.upstream());
+        }
+    }
+
+    private static String statusClass(HttpStatusCode status) {
+        if (status == null) {
+            return "UNKNOWN";
+        }
+        return switch (status.value() / 100) {
+            case 1 -> "1xx";
+            case 2 -> "2xx";
+            case 3 -> "3xx";
+            case 4 -> "4xx";
+            case 5 -> "5xx";
+            default -> "UNKNOWN";
+        };
+    }
+
+    private record TimerKey(String route, String status, String upstream) {
+    }
+
+    private record Timers(Timer total, Timer upstream) {
+    }
+
+    @Override
+    public int getOrder() {
+        // Directly after LoggingFilter
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
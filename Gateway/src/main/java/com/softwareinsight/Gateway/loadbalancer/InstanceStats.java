@@ -0,0 +1,167 @@
+package com.softwareinsight.Gateway.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Observed latency and in-flight requests per upstream instance (host:port)
+ *
+ * Fed by LoadBalancerStatsFilter and HedgingFilter, read by LatencyAwareLoadBalancer. Latency is a peak EWMA:
+ * a slower sample is taken over at once, faster samples pull the average down with a time
+ * constant of decay, and an instance that gets no traffic drifts back towards initial-latency so it is tried again.
+ * An instance without responses yet is costed at initial-latency, never at zero, so its in-flight
+ * requests count from the first one and a new or recovered instance is not sent every request until it answers.
+ * The cost of an instance is that latency times (in-flight + 1).
+ *
+ * Entries idle for idle-timeout are evicted, but never while the instance has requests in flight.
+ */
+@Component
+public class InstanceStats {
+
+    private final Cache<String, Stats> byInstance;
+    private final double decayNanos;
+    private final double initialLatencyNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public InstanceStats(
+            @Value("${gateway.load-balancer.latency-aware.decay:10s}") Duration decay,
+            @Value("${gateway.load-balancer.latency-aware.initial-latency:10ms}") Duration initialLatency,
+            @Value("${gateway.load-balancer.latency-aware.idle-timeout:10m}") Duration idleTimeout) {
+        this(decay, initialLatency, idleTimeout, System::nanoTime);
+    }
+
+    public InstanceStats(Duration decay, Duration initialLatency, Duration idleTimeout, LongSupplier nanoClock) {
+        this.decayNanos = decay.toNanos();
+        this.initialLatencyNanos = initialLatency.toNanos();
+        this.nanoClock = nanoClock;
+        long idleNanos = idleTimeout.toNanos();
+        this.byInstance = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Stats>() {
+                    @Override
+                    public long expireAfterCreate(String key, Stats stats, long currentTime) {
+                        return stats.inFlight.get() > 0 ? Long.MAX_VALUE : idleNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Stats stats, long currentTime, long currentDuration) {
+                        return stats.inFlight.get() > 0 ? Long.MAX_VALUE : idleNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Stats stats, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(nanoClock::getAsLong)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * A request to the instance has started
+     */
+    public void started(String host, int port) {
+        update(host, port, stats -> stats.inFlight.incrementAndGet());
+    }
+
+    /**
+     * A request to the instance has finished after latencyNanos
+     */
+    public void finished(String host, int port, long latencyNanos) {
+        long now = nanoClock.getAsLong();
+        update(host, port, stats -> {
+            stats.release();
+            stats.record(latencyNanos, now, decayNanos);
+        });
+    }
+
+    /**
+     * A request to the instance was cancelled before its latency was known, e.g. a hedge that lost
+     */
+    public void abandoned(String host, int port) {
+        update(host, port, Stats::release);
+    }
+
+    /**
+     * Expected cost of sending one more request to the instance; lower is better
+     */
+    public double cost(ServiceInstance instance) {
+        Stats stats = byInstance.getIfPresent(key(instance.getHost(), instance.getPort()));
+        if (stats == null) {
+            return initialLatencyNanos;
+        }
+        return stats.latency(nanoClock.getAsLong(), decayNanos, initialLatencyNanos) * (stats.inFlight.get() + 1);
+    }
+
+    /**
+     * Requests currently in flight to the instance
+     */
+    public int inFlight(ServiceInstance instance) {
+        Stats stats = byInstance.getIfPresent(key(instance.getHost(), instance.getPort()));
+        return stats != null ? stats.inFlight.get() : 0;
+    }
+
+    long trackedInstances() {
+        byInstance.cleanUp();
+        return byInstance.estimatedSize();
+    }
+
+    // A write, so the entry's expiry is recomputed with the new in-flight count
+    private void update(String host, int port, Consumer<Stats> change) {
+        byInstance.asMap().compute(key(host, port), (key, stats) -> {
+            Stats current = stats != null ? stats : new Stats();
+            change.accept(current);
+            return current;
+        });
+    }
+
+    private static String key(String host, int port) {
+        return host + ':' + port;
+    }
+
+    private static final class Stats {
+
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        private boolean sampled;
+        private double ewmaNanos;
+        private long updatedAt;
+
+        void release() {
+            inFlight.updateAndGet(current -> Math.max(current - 1, 0));
+        }
+
+        synchronized void record(long latencyNanos, long now, double decayNanos) {
+            if (!sampled || latencyNanos > ewmaNanos) {
+                ewmaNanos = latencyNanos;
+                sampled = true;
+            } else {
+                double weight = Math.exp(-Math.max(now - updatedAt, 0) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            updatedAt = now;
+        }
+
+        /**
+         * The average, drifting from the last sample back towards initialLatencyNanos while idle
+         */
+        synchronized double latency(long now, double decayNanos, double initialLatencyNanos) {
+            if (!sampled) {
+                return initialLatencyNanos;
+            }
+            double weight = Math.exp(-Math.max(now - updatedAt, 0) / decayNanos);
+            return initialLatencyNanos + (ewmaNanos - initialLatencyNanos) * weight;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.softwareinsight.Gateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices load balancer over InstanceStats
+ *
+ * Picks two different instances at random and sends the request to the one with the lower cost
+ * (latency EWMA times in-flight requests + 1). A slow or overloaded instance keeps receiving some
+ * traffic, so its stats stay current, but most requests go elsewhere - unlike round robin,
+ * which gives every instance the same share however slow it is.
+ *
+ * Design Pattern: Strategy (ReactorServiceInstanceLoadBalancer)
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplier;
+    private final String serviceId;
+    private final InstanceStats instanceStats;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplier,
+                                    String serviceId, InstanceStats instanceStats) {
+        this.serviceInstanceListSupplier = serviceInstanceListSupplier;
+        this.serviceId = serviceId;
+        this.instanceStats = instanceStats;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplier
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+
+        return supplier.get(request).next().map(instances -> {
+            ServiceInstance chosen = choose(instances);
+            if (chosen == null) {
+                return new EmptyResponse();
+            }
+            if (supplier instanceof SelectedInstanceCallback callback) {
+                callback.selectedServiceInstance(chosen);
+            }
+            return new DefaultResponse(chosen);
+        });
+    }
+
+    /**
+     * The cheaper of two randomly picked instances, or null if there are none
+     */
+    public ServiceInstance choose(List<ServiceInstance> instances) {
+        int size = instances.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return instances.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return instanceStats.cost(b) < instanceStats.cost(a) ? b : a;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+}
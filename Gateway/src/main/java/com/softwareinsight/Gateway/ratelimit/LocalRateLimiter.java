@@ -0,0 +1,216 @@
+package com.softwareinsight.Gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process token-bucket rate limiter for the RequestRateLimiter filter
+ *
+ * Route args use the same names as the Redis limiter, under local-rate-limiter.*:
+ * replenishRate (tokens per second), burstCapacity (bucket size) and requestedTokens (cost per request).
+ *
+ * Each (route, key) pair has its own bucket, held in a size-bounded Caffeine map whose idle
+ * entries expire; an idle bucket is full again anyway. A bucket is a single AtomicLong holding
+ * the instant at which it will be full again (GCRA form of a token bucket), so taking tokens
+ * is one compare-and-set and never blocks. Limiting therefore needs no Redis round trip;
+ * RateLimitSync can optionally share consumption between replicas in the background.
+ *
+ * Design Pattern: Strategy (alternative RateLimiter for RequestRateLimiter)
+ */
+@Component
+@Primary
+@Slf4j
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Cache<BucketKey, Bucket> buckets;
+    private final boolean includeHeaders;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public LocalRateLimiter(
+            ConfigurationService configurationService,
+            @Value("${gateway.rate-limiter.max-keys:100000}") long maxKeys,
+            @Value("${gateway.rate-limiter.idle-timeout:5m}") Duration idleTimeout,
+            @Value("${gateway.rate-limiter.include-headers:true}") boolean includeHeaders) {
+        this(configurationService, maxKeys, idleTimeout, includeHeaders, System::nanoTime);
+    }
+
+    LocalRateLimiter(ConfigurationService configurationService, long maxKeys, Duration idleTimeout,
+                     boolean includeHeaders, LongSupplier nanoClock) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.includeHeaders = includeHeaders;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .ticker(nanoClock::getAsLong)
+                .build();
+
+        log.info("Local rate limiter enabled (max keys: {}, idle timeout: {})", maxKeys, idleTimeout);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId);
+        }
+
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.get(new BucketKey(routeId, id), key -> new Bucket(now));
+        long remaining = bucket.tryAcquire(config, now);
+        boolean allowed = remaining >= 0;
+
+        if (!allowed) {
+            log.debug("Rate limit exceeded on route {} for {}", routeId, id);
+        }
+        return Mono.just(new Response(allowed, headers(config, allowed ? remaining : 0)));
+    }
+
+    /**
+     * Same response headers as the Redis limiter
+     */
+    private Map<String, String> headers(Config config, long remaining) {
+        if (!includeHeaders) {
+            return Map.of();
+        }
+        return Map.of(
+                RedisRateLimiter.REMAINING_HEADER, Long.toString(remaining),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, Integer.toString(config.getReplenishRate()),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, Long.toString(config.getBurstCapacity()),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, Integer.toString(config.getRequestedTokens()));
+    }
+
+    /**
+     * Visit every live bucket (used by RateLimitSync)
+     */
+    void forEachBucket(BiConsumer<BucketKey, Bucket> action) {
+        buckets.asMap().forEach(action);
+    }
+
+    /**
+     * Take tokens that other replicas consumed for this key out of the local bucket
+     */
+    void consumeRemote(BucketKey key, Bucket bucket, long tokens) {
+        Config config = getConfig().get(key.routeId());
+        if (config != null) {
+            bucket.drain(config, tokens, nanoClock.getAsLong());
+        }
+    }
+
+    /**
+     * Rate limit key: the route plus the resolved client key (username or address)
+     */
+    record BucketKey(String routeId, String id) {
+    }
+
+    /**
+     * One token bucket
+     *
+     * fullAt is the instant the bucket will be full again: taking n tokens moves it n emission
+     * intervals into the future, and a request is refused if that would put it more than
+     * burstCapacity intervals ahead of now.
+     */
+    static final class Bucket {
+
+        private final AtomicLong fullAt;
+        private final LongAdder consumed = new LongAdder();
+
+        // Only touched by RateLimitSync, one sync at a time
+        long syncWindow;
+        long localInWindow;
+        long remoteInWindow;
+
+        Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        /**
+         * @return tokens left after this request, or -1 if the request is refused
+         */
+        long tryAcquire(Config config, long now) {
+            if (config.getReplenishRate() <= 0) {
+                return -1;
+            }
+            long interval = NANOS_PER_SECOND / config.getReplenishRate();
+            long capacity = capacityNanos(config, interval);
+            long cost = interval * config.getRequestedTokens();
+
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + cost;
+                long ahead = next - now;
+                if (ahead > capacity) {
+                    return -1;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    consumed.add(config.getRequestedTokens());
+                    return (capacity - ahead) / interval;
+                }
+            }
+        }
+
+        /**
+         * Remove tokens without a limit check, leaving the bucket empty at worst
+         */
+        void drain(Config config, long tokens, long now) {
+            if (config.getReplenishRate() <= 0) {
+                return;
+            }
+            long interval = NANOS_PER_SECOND / config.getReplenishRate();
+            long capacity = capacityNanos(config, interval);
+            long cost = tokens > capacity / interval ? capacity : tokens * interval;
+
+            fullAt.getAndUpdate(current -> Math.min(Math.max(current, now) + cost, now + capacity));
+        }
+
+        /**
+         * Tokens taken locally since the last call
+         */
+        long takeConsumed() {
+            return consumed.sumThenReset();
+        }
+
+        private static long capacityNanos(Config config, long interval) {
+            long burst = config.getBurstCapacity();
+            return burst > Long.MAX_VALUE / 4 / interval ? Long.MAX_VALUE / 4 : burst * interval;
+        }
+    }
+
+    @Data
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate;
+
+        @Min(0)
+        private long burstCapacity = 1;
+
+        @Min(1)
+        private int requestedTokens = 1;
+    }
+}
@@ -0,0 +1,36 @@
+package com.softwareinsight.Gateway.ratelimit;
+
+import com.softwareinsight.Gateway.filter.AuthenticationFilter;
+import com.softwareinsight.Gateway.util.TokenPrincipal;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rate limit key for RequestRateLimiter
+ *
+ * Authenticated requests are limited per user: the principal that AuthenticationFilter verified
+ * (never a client-supplied header). Everything else, e.g. login on the auth route, is limited
+ * per client address. Routes should list AuthenticationFilter before RequestRateLimiter.
+ */
+@Component
+public class PrincipalKeyResolver implements KeyResolver {
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        TokenPrincipal principal = exchange.getAttribute(AuthenticationFilter.PRINCIPAL_ATTRIBUTE);
+        if (principal != null) {
+            return Mono.just("user:" + principal.username());
+        }
+
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote != null && remote.getAddress() != null) {
+            return Mono.just("ip:" + remote.getAddress().getHostAddress());
+        }
+        // No key - RequestRateLimiter applies its deny-empty-key setting
+        return Mono.empty();
+    }
+}
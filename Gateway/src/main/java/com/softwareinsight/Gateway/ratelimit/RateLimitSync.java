@@ -0,0 +1,206 @@
+package com.softwareinsight.Gateway.ratelimit;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate cluster-wide rate limits for LocalRateLimiter
+ *
+ * Every sync interval each replica adds the tokens its buckets consumed to a per-key counter in
+ * Redis (one counter per time window, expiring shortly after it) and drains the share consumed
+ * by the other replicas from its local buckets - also for buckets that took no tokens locally in
+ * that interval. One Lua script call covers a batch of buckets, with a few batches in flight at most.
+ * Requests never wait for Redis: if it is slow or down the limits simply become per replica until it is back.
+ */
+@Component
+@Slf4j
+public class RateLimitSync {
+
+    // The hash tag keeps all counters, and so every batch, in one Redis Cluster slot
+    private static final String KEY_PREFIX = "{gateway:rate-limit}:";
+    private static final int MAX_CONCURRENT_BATCHES = 4;
+
+    /**
+     * KEYS: one counter per bucket and window; ARGV[1]: counter TTL in ms, ARGV[i + 1]: tokens taken
+     * locally for KEYS[i]. Returns the counters' totals; a new counter gets its TTL once.
+     */
+    private static final RedisScript<List<Long>> SYNC_SCRIPT = RedisScript.of("""
+            local totals = {}
+            for i, key in ipairs(KEYS) do
+                local delta = tonumber(ARGV[i + 1])
+                if delta > 0 then
+                    local total = redis.call('INCRBY', key, delta)
+                    if total == delta then
+                        redis.call('PEXPIRE', key, ARGV[1])
+                    end
+                    totals[i] = total
+                else
+                    totals[i] = tonumber(redis.call('GET', key) or '0')
+                end
+            end
+            return totals
+            """, listOfLongs());
+
+    private final LocalRateLimiter rateLimiter;
+    private final ObjectProvider<ReactiveStringRedisTemplate> redisTemplate;
+    private final boolean enabled;
+    private final Duration interval;
+    private final Duration timeout;
+    private final int batchSize;
+    private final LongSupplier millisClock;
+
+    private volatile Disposable schedule;
+    private volatile boolean redisAvailable = true;
+
+    @Autowired
+    public RateLimitSync(
+            LocalRateLimiter rateLimiter,
+            ObjectProvider<ReactiveStringRedisTemplate> redisTemplate,
+            @Value("${gateway.rate-limiter.sync.enabled:false}") boolean enabled,
+            @Value("${gateway.rate-limiter.sync.interval:1s}") Duration interval,
+            @Value("${gateway.rate-limiter.sync.timeout:500ms}") Duration timeout,
+            @Value("${gateway.rate-limiter.sync.batch-size:500}") int batchSize) {
+        this(rateLimiter, redisTemplate, enabled, interval, timeout, batchSize, System::currentTimeMillis);
+    }
+
+    RateLimitSync(LocalRateLimiter rateLimiter, ObjectProvider<ReactiveStringRedisTemplate> redisTemplate,
+                  boolean enabled, Duration interval, Duration timeout, int batchSize, LongSupplier millisClock) {
+        this.rateLimiter = rateLimiter;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.timeout = timeout;
+        this.batchSize = batchSize;
+        this.millisClock = millisClock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ReactiveStringRedisTemplate redis = redisTemplate.getIfAvailable();
+        if (!enabled || redis == null) {
+            log.info("Rate limit sync disabled - limits apply per Gateway replica");
+            return;
+        }
+
+        log.info("Rate limit sync enabled (interval: {})", interval);
+        // concatMap: a slow sync delays the next one instead of overlapping it
+        schedule = Flux.interval(interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sync(redis))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = schedule;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    /**
+     * Publish local consumption and apply the other replicas' consumption
+     */
+    Mono<Void> sync(ReactiveStringRedisTemplate redis) {
+        long window = millisClock.getAsLong() / interval.toMillis();
+        List<Update> updates = new ArrayList<>();
+
+        rateLimiter.forEachBucket((key, bucket) -> {
+            long delta = bucket.takeConsumed();
+            if (bucket.syncWindow != window) {
+                bucket.syncWindow = window;
+                bucket.localInWindow = 0;
+                bucket.remoteInWindow = 0;
+            }
+            bucket.localInWindow += delta;
+            updates.add(new Update(key, bucket, redisKey(key, window), delta));
+        });
+
+        if (updates.isEmpty()) {
+            return Mono.empty();
+        }
+
+        String ttlMillis = Long.toString(interval.multipliedBy(2).toMillis());
+        return Flux.fromIterable(updates)
+                .buffer(batchSize)
+                .flatMap(batch -> syncBatch(redis, batch, ttlMillis), MAX_CONCURRENT_BATCHES)
+                .then()
+                .timeout(timeout)
+                .doOnSuccess(done -> {
+                    if (!redisAvailable) {
+                        redisAvailable = true;
+                        log.info("Rate limit sync with Redis restored");
+                    }
+                })
+                .onErrorResume(e -> {
+                    if (redisAvailable) {
+                        redisAvailable = false;
+                        log.warn("Rate limit sync with Redis failed - limits apply per replica until it recovers: {}",
+                                e.getMessage());
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> syncBatch(ReactiveStringRedisTemplate redis, List<Update> batch, String ttlMillis) {
+        List<String> keys = new ArrayList<>(batch.size());
+        List<String> args = new ArrayList<>(batch.size() + 1);
+        args.add(ttlMillis);
+        for (Update update : batch) {
+            keys.add(update.redisKey());
+            args.add(Long.toString(update.delta()));
+        }
+
+        return redis.execute(SYNC_SCRIPT, keys, args)
+                .reduce(new ArrayList<Long>(), (totals, part) -> {
+                    totals.addAll(part);
+                    return totals;
+                })
+                .doOnNext(totals -> {
+                    for (int i = 0; i < totals.size() && i < batch.size(); i++) {
+                        applyTotal(batch.get(i), totals.get(i));
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Drain whatever the window's total holds beyond what this replica took or already drained
+     */
+    private void applyTotal(Update update, long total) {
+        LocalRateLimiter.Bucket bucket = update.bucket();
+        long remote = total - bucket.localInWindow - bucket.remoteInWindow;
+        if (remote > 0) {
+            bucket.remoteInWindow += remote;
+            rateLimiter.consumeRemote(update.key(), bucket, remote);
+        }
+    }
+
+    static String redisKey(LocalRateLimiter.BucketKey key, long window) {
+        return KEY_PREFIX + key.routeId() + ':' + key.id() + ':' + window;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Class<List<Long>> listOfLongs() {
+        return (Class) List.class;
+    }
+
+    private record Update(LocalRateLimiter.BucketKey key, LocalRateLimiter.Bucket bucket, String redisKey, long delta) {
+    }
+}
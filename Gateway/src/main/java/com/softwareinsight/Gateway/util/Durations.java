@@ -0,0 +1,26 @@
+package com.softwareinsight.Gateway.util;
+
+/**
+ * Duration formatting for log lines and response headers, without String.format
+ */
+public final class Durations {
+
+    private Durations() {
+    }
+
+    /**
+     * Append nanoseconds as milliseconds with microsecond precision, e.g. 12.045
+     */
+    public static StringBuilder appendMillis(StringBuilder target, long nanos) {
+        long micros = Math.max(nanos, 0) / 1_000;
+        long fraction = micros % 1_000;
+        target.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            target.append('0');
+        }
+        if (fraction < 10) {
+            target.append('0');
+        }
+        return target.append(fraction);
+    }
+}
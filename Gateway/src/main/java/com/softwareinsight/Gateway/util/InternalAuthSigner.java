@@ -0,0 +1,73 @@
+package com.softwareinsight.Gateway.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Signs the identity headers the Gateway forwards to downstream services
+ *
+ * Downstream services holding the same internal secret can check the X-Gateway-Auth marker
+ * and trust X-User-Username / X-User-Id / X-User-Roles without verifying the JWT again.
+ * Marker format: v2:&lt;epochSeconds&gt;:&lt;base64url HMAC-SHA256 of username, userId, roles,
+ * method, path, bearer token, epochSeconds&gt;
+ *
+ * Method, path and token are covered so a captured set of headers is only good for the same call
+ * with the same token within the skew window. The secret is dedicated to this marker and must be set;
+ * it is never derived from jwt.secret.
+ */
+@Component
+public class InternalAuthSigner {
+
+    public static final String HEADER_USERNAME = "X-User-Username";
+    public static final String HEADER_USER_ID = "X-User-Id";
+    public static final String HEADER_ROLES = "X-User-Roles";
+    public static final String HEADER_MARKER = "X-Gateway-Auth";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v2";
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public InternalAuthSigner(@Value("${gateway.internal-auth.secret:}") String secret) {
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("gateway.internal-auth.secret (GATEWAY_INTERNAL_AUTH_SECRET) must be set to at least "
+                    + MIN_SECRET_LENGTH + " characters and shared with downstream services");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Create the X-Gateway-Auth value for an authenticated principal, bound to this request
+     *
+     * @param method HTTP method of the forwarded request
+     * @param path   raw (undecoded) request path, without the query string
+     * @param token  bearer token the principal was taken from
+     */
+    public String sign(String username, String userId, String roles, String method, String path, String token) {
+        long epochSeconds = System.currentTimeMillis() / 1000;
+        String payload = username + '\n' + userId + '\n' + roles + '\n'
+                + method + '\n' + path + '\n' + token + '\n' + epochSeconds;
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+
+        return VERSION + ':' + epochSeconds + ':' + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+        }
+    }
+}
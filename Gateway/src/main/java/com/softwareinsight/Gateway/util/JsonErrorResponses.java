@@ -0,0 +1,118 @@
+package com.softwareinsight.Gateway.util;
+
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-encoded JSON bodies for error and fallback responses
+ *
+ * The static part of each body (status, error, fixed message) is encoded once into a read-only
+ * direct buffer; each response writes a view of that buffer followed by the few dynamic fields,
+ * so Netty can send the shared bytes without copying them and no JSON serializer runs.
+ *
+ * Error body:    {"status":500,"error":"Internal Server Error","timestamp":"...","message":"...","path":"..."}
+ * Fallback body: {"status":503,"error":"Service Unavailable","message":"...","circuitBreakerActivated":true,"timestamp":"..."}
+ */
+public final class JsonErrorResponses {
+
+    private static final ByteBuffer END_STRING_AND_OBJECT = encode("\"}");
+    private static final Map<Integer, ByteBuffer> ERROR_PREFIXES = new ConcurrentHashMap<>();
+
+    private JsonErrorResponses() {
+    }
+
+    /**
+     * Pre-encode the fallback body for a service; only the timestamp is added per response
+     */
+    public static ByteBuffer fallbackPrefix(String message) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        StringBuilder json = new StringBuilder(128)
+                .append("{\"status\":").append(status.value())
+                .append(",\"error\":\"").append(status.getReasonPhrase())
+                .append("\",\"message\":\"");
+        appendEscaped(json, message);
+        json.append("\",\"circuitBreakerActivated\":true,\"timestamp\":\"");
+        return encode(json.toString());
+    }
+
+    /**
+     * Write a fallback body built with fallbackPrefix()
+     */
+    public static Mono<Void> writeFallback(ServerHttpResponse response, ByteBuffer prefix) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        return write(response, prefix, LocalDateTime.now().toString(), END_STRING_AND_OBJECT);
+    }
+
+    /**
+     * Write an error body; message and path are JSON-escaped
+     */
+    public static Mono<Void> writeError(ServerHttpResponse response, HttpStatus status, String message, String path) {
+        response.setStatusCode(status);
+
+        ByteBuffer prefix = ERROR_PREFIXES.computeIfAbsent(status.value(), code -> encode(
+                "{\"status\":" + code + ",\"error\":\"" + status.getReasonPhrase() + "\",\"timestamp\":\""));
+
+        StringBuilder dynamic = new StringBuilder(64)
+                .append(LocalDateTime.now())
+                .append("\",\"message\":\"");
+        appendEscaped(dynamic, message);
+        dynamic.append("\",\"path\":\"");
+        appendEscaped(dynamic, path);
+
+        return write(response, prefix, dynamic.toString(), END_STRING_AND_OBJECT);
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, ByteBuffer prefix, String dynamic, ByteBuffer suffix) {
+        byte[] middle = dynamic.getBytes(StandardCharsets.UTF_8);
+
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(prefix.remaining() + middle.length + suffix.remaining());
+
+        // duplicate(): each response gets its own position over the shared bytes
+        DataBufferFactory buffers = response.bufferFactory();
+        return response.writeWith(Flux.just(
+                buffers.wrap(prefix.duplicate()),
+                buffers.wrap(middle),
+                buffers.wrap(suffix.duplicate())));
+    }
+
+    private static ByteBuffer encode(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private static void appendEscaped(StringBuilder json, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00");
+                        json.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.softwareinsight.Gateway.util;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Public token-signing keys fetched from Auth Service's /.well-known/jwks.json
+ *
+ * Keys are looked up by kid. An unknown kid (e.g. after a key rotation) makes the caller
+ * refresh and retry; refreshes are shared and at most one starts per min-refresh-interval,
+ * so tokens with made-up kids cannot flood Auth Service. The set is also refreshed in the
+ * background once it is older than max-age, which drops retired keys.
+ *
+ * An lb:// URI is resolved through service discovery.
+ */
+@Component
+@Slf4j
+public class JwksKeyCache {
+
+    private static final String LOAD_BALANCED_SCHEME = "lb://";
+
+    private final boolean enabled;
+    private final WebClient webClient;
+    private final String uri;
+    private final long minRefreshIntervalNanos;
+    private final long maxAgeNanos;
+    private final Duration timeout;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long loadedAtNanos;
+
+    private Mono<Void> refreshing;
+    private long refreshStartedAtNanos;
+
+    public JwksKeyCache(
+            ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancerFilter,
+            @Value("${gateway.auth.jwks.enabled:true}") boolean enabled,
+            @Value("${gateway.auth.jwks.uri:lb://AUTHSERVICE/.well-known/jwks.json}") String uri,
+            @Value("${gateway.auth.jwks.min-refresh-interval:30s}") Duration minRefreshInterval,
+            @Value("${gateway.auth.jwks.max-age:15m}") Duration maxAge,
+            @Value("${gateway.auth.jwks.timeout:2s}") Duration timeout) {
+        this.enabled = enabled;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.maxAgeNanos = maxAge.toNanos();
+        this.timeout = timeout;
+
+        WebClient.Builder builder = WebClient.builder();
+        if (uri.startsWith(LOAD_BALANCED_SCHEME)) {
+            uri = "http://" + uri.substring(LOAD_BALANCED_SCHEME.length());
+            ReactorLoadBalancerExchangeFilterFunction filter = loadBalancerFilter.getIfAvailable();
+            if (filter != null) {
+                builder.filter(filter);
+            }
+        }
+        this.uri = uri;
+        this.webClient = builder.build();
+    }
+
+    /**
+     * Public key for a kid, or null if it is not (yet) known
+     */
+    public PublicKey get(String keyId) {
+        if (!enabled) {
+            return null;
+        }
+        if (loadedAtNanos != 0 && System.nanoTime() - loadedAtNanos > maxAgeNanos) {
+            refresh().subscribe();
+        }
+        return keys.get(keyId);
+    }
+
+    /**
+     * Fetch the key set again
+     * Completes when the fetch has finished, successfully or not; callers then look up again
+     */
+    public synchronized Mono<Void> refresh() {
+        if (!enabled) {
+            return Mono.empty();
+        }
+
+        long now = System.nanoTime();
+        if (refreshing != null && now - refreshStartedAtNanos < minRefreshIntervalNanos) {
+            return refreshing;
+        }
+
+        refreshStartedAtNanos = now;
+        refreshing = webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout)
+                .doOnNext(json -> {
+                    keys = parse(json);
+                    loadedAtNanos = System.nanoTime();
+                    log.info("Loaded {} token signing key(s) from {}", keys.size(), uri);
+                })
+                .doOnError(e -> log.warn("Could not fetch token signing keys from {}: {}", uri, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then()
+                .cache();
+        return refreshing;
+    }
+
+    /**
+     * Load the keys at startup so the first requests do not wait for them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        refresh().subscribe();
+    }
+
+    /**
+     * Public keys by kid from a JWK set document; keys without a kid or that are not public are skipped
+     */
+    static Map<String, PublicKey> parse(String json) {
+        JwkSet jwkSet = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (Jwk<?> jwk : jwkSet.getKeys()) {
+            Key key = jwk.toKey();
+            if (jwk.getId() != null && key instanceof PublicKey publicKey) {
+                parsed.put(jwk.getId(), publicKey);
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+}
@@ -1,14 +1,22 @@
 package com.softwareinsight.Gateway.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.function.Function;
 
@@ -20,9 +28,39 @@ import java.util.function.Function;
 @Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
+    /**
+     * Shared HMAC secret for tokens without a kid; may be empty once Auth Service signs with a key pair
+     */
+    @Value("${jwt.secret:}")
     private String secret;
 
+    /**
+     * Auth Service signing algorithm; unless it is HS256, tokens without a kid are rejected
+     */
+    @Value("${jwt.signing.algorithm:HS256}")
+    private String signingAlgorithm = "HS256";
+
+    /**
+     * Accept kid-less HS256 tokens after Auth Service has switched to ES256/EdDSA
+     * (only for the lifetime of tokens issued before the switch)
+     */
+    @Value("${jwt.signing.accept-legacy-hs256:false}")
+    private boolean acceptLegacyHs256;
+
+    /**
+     * Public keys for tokens with a kid (ES256/EdDSA)
+     */
+    @Autowired(required = false)
+    private JwksKeyCache jwksKeyCache;
+
+    /**
+     * Parser built once; it picks the verification key per token.
+     * JwtParser is immutable and thread-safe, so a single instance serves all requests.
+     */
+    private volatile JwtParser parser;
+
+    private volatile SecretKey secretKey;
+
     /**
      * Extract username from token
      */
@@ -61,32 +99,81 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verify the token signature and expiration once and return its claims
+     * Callers should read username, roles, etc. from the returned claims
+     * instead of calling the extract* methods, which each verify again
+     *
+     * @throws UnknownSigningKeyException if the token's kid is not in the cached key set
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims verifyAndExtractClaims(String token) {
+        Claims claims = extractAllClaims(token);
+        if (claims.getExpiration() == null) {
+            throw new JwtException("Token has no expiration");
+        }
+        return claims;
+    }
+
     /**
      * Extract all claims from a token
      * Updated to match AuthService JwtService implementation
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     /**
-     * Get signing key from secret
-     * Updated to match AuthService JwtService implementation
+     * Get the shared parser, building it on first use
+     * A race here only builds an equivalent parser twice, so no locking is needed
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser()
+                    .keyLocator(this::locateKey)
+                    .build();
+            parser = current;
+        }
+        return current;
+    }
+
+    /**
+     * Verification key for a token: the JWKS public key named by its kid, or the shared secret
+     * without one while HS256 tokens are accepted
+     */
+    private Key locateKey(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (keyId == null) {
+            if (!acceptLegacyHs256 && !"HS256".equalsIgnoreCase(signingAlgorithm.trim())) {
+                throw new UnsupportedJwtException("Token has no key id and HS256 tokens are no longer accepted");
+            }
+            return getSigningKey();
+        }
+
+        PublicKey key = jwksKeyCache != null ? jwksKeyCache.get(keyId) : null;
+        if (key == null) {
+            throw new UnknownSigningKeyException(keyId);
+        }
+        return key;
     }
 
     /**
-     * Check if the token is expired
+     * Get signing key from secret
+     * Updated to match AuthService JwtService implementation
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private SecretKey getSigningKey() {
+        SecretKey key = secretKey;
+        if (key == null) {
+            if (secret == null || secret.isBlank()) {
+                throw new UnsupportedJwtException("Token has no key id and jwt.secret is not set");
+            }
+            key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+            secretKey = key;
+        }
+        return key;
     }
 
     /**
@@ -94,8 +181,8 @@ public class JwtUtil {
      */
     public boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            verifyAndExtractClaims(token);
+            return true;
         } catch (Exception e) {
             log.error("Invalid token: {}", e.getMessage());
             return false;
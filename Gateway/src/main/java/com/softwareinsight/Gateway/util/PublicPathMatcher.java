@@ -0,0 +1,167 @@
+package com.softwareinsight.Gateway.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Matches request paths against a fixed set of public path patterns
+ *
+ * The patterns are compiled once into a segment trie, so a lookup walks the path a single time
+ * (O(path segments)) and compares segments in place, without substrings or other allocation.
+ *
+ * Pattern syntax (a subset of Spring's PathPattern):
+ * - literal segments, compared case-sensitively: /api/v1/auth/login
+ * - * or a {variable} matches exactly one segment: /api/v1/users/{userId}/avatar
+ * - ** as the last segment matches the rest of the path, including nothing: /actuator/**
+ *
+ * Repeated and trailing slashes are ignored. Percent-encoded or otherwise unusual segments
+ * simply do not match, so such requests are authenticated as usual.
+ */
+public final class PublicPathMatcher {
+
+    private static final PublicPathMatcher NONE = new PublicPathMatcher(new Node());
+
+    private final Node root;
+
+    private PublicPathMatcher(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile patterns into a matcher
+     *
+     * @throws IllegalArgumentException for a pattern that does not start with '/' or uses ** before the end
+     */
+    public static PublicPathMatcher compile(Collection<String> patterns) {
+        if (patterns == null || patterns.isEmpty()) {
+            return NONE;
+        }
+
+        Node root = new Node();
+        for (String pattern : patterns) {
+            add(root, pattern.trim());
+        }
+        root.freeze();
+        return new PublicPathMatcher(root);
+    }
+
+    /**
+     * Whether the path matches any of the patterns
+     */
+    public boolean matches(String path) {
+        return path != null && matches(root, path, 0);
+    }
+
+    private static boolean matches(Node node, String path, int from) {
+        if (node.matchesRest) {
+            return true;
+        }
+
+        int start = from;
+        int length = path.length();
+        while (start < length && path.charAt(start) == '/') {
+            start++;
+        }
+        if (start == length) {
+            return node.terminal;
+        }
+
+        // Find the segment end and its String.hashCode() in one pass
+        int end = start;
+        int hash = 0;
+        for (char c; end < length && (c = path.charAt(end)) != '/'; end++) {
+            hash = 31 * hash + c;
+        }
+
+        int segmentLength = end - start;
+        String[] literals = node.literals;
+        int[] hashes = node.literalHashes;
+        for (int i = 0; i < literals.length; i++) {
+            if (hashes[i] == hash
+                    && literals[i].length() == segmentLength
+                    && path.regionMatches(start, literals[i], 0, segmentLength)
+                    && matches(node.literalChildren[i], path, end)) {
+                return true;
+            }
+        }
+
+        return node.wildcard != null && matches(node.wildcard, path, end);
+    }
+
+    private static void add(Node root, String pattern) {
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Public path pattern must start with '/': " + pattern);
+        }
+
+        String[] segments = Arrays.stream(pattern.split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .toArray(String[]::new);
+
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if ("**".equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("** is only supported as the last segment: " + pattern);
+                }
+                node.matchesRest = true;
+                return;
+            }
+            node = isWildcard(segment) ? node.wildcardChild() : node.literalChild(segment);
+        }
+        node.terminal = true;
+    }
+
+    private static boolean isWildcard(String segment) {
+        return "*".equals(segment) || (segment.startsWith("{") && segment.endsWith("}"));
+    }
+
+    /**
+     * Trie node; built with lists, then frozen into arrays for lookups
+     */
+    private static final class Node {
+        private final List<String> literalList = new ArrayList<>();
+        private final List<Node> childList = new ArrayList<>();
+
+        private String[] literals = new String[0];
+        private int[] literalHashes = new int[0];
+        private Node[] literalChildren = new Node[0];
+        private Node wildcard;
+        private boolean terminal;
+        private boolean matchesRest;
+
+        private Node literalChild(String segment) {
+            int index = literalList.indexOf(segment);
+            if (index >= 0) {
+                return childList.get(index);
+            }
+            Node child = new Node();
+            literalList.add(segment);
+            childList.add(child);
+            return child;
+        }
+
+        private Node wildcardChild() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+
+        private void freeze() {
+            literals = literalList.toArray(String[]::new);
+            literalHashes = literalList.stream().mapToInt(String::hashCode).toArray();
+            literalChildren = childList.toArray(Node[]::new);
+            literalList.clear();
+            childList.clear();
+            for (Node child : literalChildren) {
+                child.freeze();
+            }
+            if (wildcard != null) {
+                wildcard.freeze();
+            }
+        }
+    }
+}
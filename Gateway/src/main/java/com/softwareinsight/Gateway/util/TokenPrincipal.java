@@ -0,0 +1,35 @@
+package com.softwareinsight.Gateway.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Decoded, already-verified identity carried by a JWT
+ * Only the fields the Gateway forwards downstream are kept
+ */
+public record TokenPrincipal(String username, Long userId, List<String> roles, Instant expiresAt) {
+
+    /**
+     * Build a principal from verified claims
+     */
+    public static TokenPrincipal fromClaims(Claims claims) {
+        Object rawRoles = claims.get("roles");
+        List<String> roles = rawRoles instanceof List<?> list
+                ? list.stream().map(String::valueOf).toList()
+                : List.of();
+
+        Object rawUserId = claims.get("userId");
+        Long userId = rawUserId instanceof Number number ? number.longValue() : null;
+
+        return new TokenPrincipal(claims.getSubject(), userId, roles, claims.getExpiration().toInstant());
+    }
+
+    /**
+     * Value for the X-User-Roles header, e.g. [ROLE_USER, ROLE_ADMIN]
+     */
+    public String rolesHeader() {
+        return roles.isEmpty() ? "" : roles.toString();
+    }
+}
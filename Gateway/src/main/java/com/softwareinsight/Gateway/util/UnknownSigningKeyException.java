@@ -0,0 +1,12 @@
+package com.softwareinsight.Gateway.util;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Token names a kid that is not in the cached JWK set - the set may need refreshing
+ */
+public class UnknownSigningKeyException extends JwtException {
+    public UnknownSigningKeyException(String keyId) {
+        super("Unknown signing key: " + keyId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.softwareinsight.Gateway.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of already-verified tokens
+ *
+ * Maps the SHA-256 digest of a bearer token to its decoded principal so a token
+ * that was verified once is not HMAC-checked again until it expires.
+ * Caffeine provides the size bound and W-TinyLFU eviction; each entry expires at the token's own exp claim.
+ * Invalid tokens are never cached.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+    private final Cache<TokenDigest, TokenPrincipal> cache;
+
+    public VerifiedTokenCache(
+            JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.auth.token-cache.enabled:true}") boolean enabled,
+            @Value("${gateway.auth.token-cache.max-size:100000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.verified-tokens");
+        log.info("Verified token cache {} (max size: {})", enabled ? "enabled" : "disabled", maxSize);
+    }
+
+    /**
+     * Return the principal for a token, verifying it only on a cache miss
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public TokenPrincipal getOrVerify(String token) {
+        if (!enabled) {
+            return TokenPrincipal.fromClaims(jwtUtil.verifyAndExtractClaims(token));
+        }
+        return cache.get(digest(token),
+                key -> TokenPrincipal.fromClaims(jwtUtil.verifyAndExtractClaims(token)));
+    }
+
+    /**
+     * Drop every cached token, e.g. after the signing secret changes
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static TokenDigest digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * 256-bit token digest held as four longs, so keys are small and never retain the raw token
+     */
+    private record TokenDigest(long w0, long w1, long w2, long w3) {
+    }
+
+    /**
+     * Expire each entry exactly when its token expires
+     */
+    private static final class UntilTokenExpiry implements Expiry<TokenDigest, TokenPrincipal> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, TokenPrincipal principal, long currentTime) {
+            return remainingNanos(principal);
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, TokenPrincipal principal, long currentTime, long currentDuration) {
+            return remainingNanos(principal);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, TokenPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long remainingNanos(TokenPrincipal principal) {
+            long remainingMillis = principal.expiresAt().toEpochMilli() - System.currentTimeMillis();
+            return remainingMillis <= 0 ? 0L : TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+        }
+    }
+}
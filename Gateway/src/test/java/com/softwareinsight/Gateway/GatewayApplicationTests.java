@@ -1,13 +1,45 @@
 package com.softwareinsight.Gateway;
 
+import com.softwareinsight.Gateway.loadbalancer.LatencyAwareLoadBalancer;
+import com.softwareinsight.Gateway.ratelimit.LocalRateLimiter;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
 
-@SpringBootTest
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "gateway.internal-auth.secret=test-internal-auth-secret-0123456789")
 class GatewayApplicationTests {
 
+	@Autowired
+	private RouteLocator routeLocator;
+
+	@Autowired
+	private LocalRateLimiter localRateLimiter;
+
+	@Autowired
+	private LoadBalancerClientFactory loadBalancerClientFactory;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void routeRateLimitsAreBoundToLocalRateLimiter() {
+		routeLocator.getRoutes().collectList().block();
+
+		LocalRateLimiter.Config users = localRateLimiter.getConfig().get("users-service");
+		assertThat(users).isNotNull();
+		assertThat(users.getReplenishRate()).isEqualTo(20);
+		assertThat(users.getBurstCapacity()).isEqualTo(40);
+	}
+
+	@Test
+	void lbServicesUseLatencyAwareLoadBalancer() {
+		assertThat(loadBalancerClientFactory.getInstance("USERS-SERVICE"))
+				.isInstanceOf(LatencyAwareLoadBalancer.class);
+	}
+
 }
@@ -0,0 +1,104 @@
+package com.softwareinsight.Gateway.benchmark;
+
+import com.softwareinsight.Gateway.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT verification throughput in the Gateway
+ *
+ * Compares the old per-request cost (key decode + parser build + HMAC check, three times)
+ * with a single verification through the shared JwtUtil parser.
+ *
+ * Run main() from the IDE, or after mvn test-compile:
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main JwtVerificationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private String secret;
+    private String token;
+    private JwtUtil jwtUtil;
+
+    @Setup
+    public void setUp() {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        secret = Encoders.BASE64.encode(keyBytes);
+
+        token = Jwts.builder()
+                .subject("benchmark-user")
+                .claim("roles", List.of("ROLE_USER"))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(keyBytes))
+                .compact();
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", secret);
+    }
+
+    /**
+     * Previous AuthenticationFilter behaviour: validate, extract username, extract roles,
+     * each decoding the secret and building a new parser
+     */
+    @Benchmark
+    public void rebuiltParserThreeVerificationsPerRequest(Blackhole bh) {
+        bh.consume(parseWithNewParser().getExpiration());
+        bh.consume(parseWithNewParser().getSubject());
+        bh.consume(parseWithNewParser().get("roles"));
+    }
+
+    /**
+     * One verification with a freshly built parser
+     */
+    @Benchmark
+    public Claims rebuiltParserSingleVerification() {
+        return parseWithNewParser();
+    }
+
+    /**
+     * One verification with the shared parser (current AuthenticationFilter behaviour)
+     */
+    @Benchmark
+    public Claims cachedParserSingleVerification() {
+        return jwtUtil.verifyAndExtractClaims(token);
+    }
+
+    private Claims parseWithNewParser() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
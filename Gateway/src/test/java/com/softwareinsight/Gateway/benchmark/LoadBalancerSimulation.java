@@ -0,0 +1,144 @@
+package com.softwareinsight.Gateway.benchmark;
+
+import com.softwareinsight.Gateway.loadbalancer.InstanceStats;
+import com.softwareinsight.Gateway.loadbalancer.LatencyAwareLoadBalancer;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tail latency of round robin vs LatencyAwareLoadBalancer against stubbed instances
+ *
+ * Discrete-event simulation on a virtual clock, so it runs in seconds and does not depend on
+ * the machine: Poisson arrivals, each instance serves a fixed number of requests at a time
+ * from a FIFO queue with exponential service times, and one instance is several times slower
+ * than the others. Both load balancers are the real classes, called through choose(Request);
+ * InstanceStats is fed the same way LoadBalancerStatsFilter feeds it.
+ *
+ * Run main() from the IDE, or after mvn test-compile:
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; com.softwareinsight.Gateway.benchmark.LoadBalancerSimulation
+ */
+public class LoadBalancerSimulation {
+
+    private static final int INSTANCES = 5;
+    private static final int CONCURRENCY = 4;
+    private static final double MEAN_SERVICE_MILLIS = 10;
+    private static final int REQUESTS = 200_000;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) {
+        System.out.printf("%d instances x %d concurrent, mean service %.0fms, %,d requests%n%n",
+                INSTANCES, CONCURRENCY, MEAN_SERVICE_MILLIS, REQUESTS);
+        System.out.printf("%-34s %-13s %8s %8s %8s %8s %8s%n",
+                "scenario", "balancer", "p50", "p90", "p99", "p99.9", "slow %");
+
+        // Offered load as a fraction of what round robin can sustain with the slow instance
+        for (double slowdown : new double[]{1, 3, 5}) {
+            for (double load : new double[]{0.5, 0.75}) {
+                String scenario = String.format("slowdown %.0fx, load %.0f%%", slowdown, load * 100);
+                run(scenario, "round robin", slowdown, load, false);
+                run(scenario, "p2c ewma", slowdown, load, true);
+            }
+        }
+    }
+
+    private static void run(String scenario, String name, double slowdown, double load, boolean latencyAware) {
+        AtomicLong clock = new AtomicLong();
+        InstanceStats stats = new InstanceStats(Duration.ofSeconds(10), Duration.ofMillis(10), Duration.ofMinutes(10), clock::get);
+
+        List<ServiceInstance> instances = new ArrayList<>();
+        double[] meanServiceNanos = new double[INSTANCES];
+        for (int i = 0; i < INSTANCES; i++) {
+            instances.add(new DefaultServiceInstance("i" + i, "users-service", "10.0.0." + i, 8080, false));
+            meanServiceNanos[i] = TimeUnit.MILLISECONDS.toNanos((long) MEAN_SERVICE_MILLIS)
+                    * (i == INSTANCES - 1 ? slowdown : 1);
+        }
+        ReactorServiceInstanceLoadBalancer loadBalancer = loadBalancer(instances, stats, latencyAware);
+
+        // Round robin sends 1/N of the traffic to the slow instance, so it saturates first
+        double slowCapacityPerNano = CONCURRENCY / meanServiceNanos[INSTANCES - 1];
+        double arrivalsPerNano = load * slowCapacityPerNano * INSTANCES;
+
+        Random random = new Random(SEED);
+        long[][] workerFreeAt = new long[INSTANCES][CONCURRENCY];
+        PriorityQueue<long[]> completions = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        long[] latencies = new long[REQUESTS];
+        int slowPicks = 0;
+
+        long now = 0;
+        for (int n = 0; n < REQUESTS; n++) {
+            now += (long) exponential(random, 1 / arrivalsPerNano);
+
+            // Completions up to now feed the stats, as LoadBalancerStatsFilter would
+            while (!completions.isEmpty() && completions.peek()[0] <= now) {
+                long[] done = completions.poll();
+                clock.set(done[0]);
+                ServiceInstance instance = instances.get((int) done[1]);
+                stats.finished(instance.getHost(), instance.getPort(), done[0] - done[2]);
+            }
+            clock.set(now);
+
+            ServiceInstance chosen = loadBalancer.choose(new DefaultRequest<>()).block().getServer();
+            int index = instances.indexOf(chosen);
+            if (index == INSTANCES - 1) {
+                slowPicks++;
+            }
+            stats.started(chosen.getHost(), chosen.getPort());
+
+            long[] workers = workerFreeAt[index];
+            int worker = 0;
+            for (int w = 1; w < CONCURRENCY; w++) {
+                if (workers[w] < workers[worker]) {
+                    worker = w;
+                }
+            }
+            long start = Math.max(now, workers[worker]);
+            long end = start + (long) exponential(random, meanServiceNanos[index]);
+            workers[worker] = end;
+
+            completions.add(new long[]{end, index, now});
+            latencies[n] = end - now;
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("%-34s %-13s %8s %8s %8s %8s %7.1f%%%n", scenario, name,
+                millis(latencies, 0.50), millis(latencies, 0.90), millis(latencies, 0.99), millis(latencies, 0.999),
+                100.0 * slowPicks / REQUESTS);
+    }
+
+    private static ReactorServiceInstanceLoadBalancer loadBalancer(List<ServiceInstance> instances,
+                                                                  InstanceStats stats, boolean latencyAware) {
+        ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from("users-service",
+                instances.toArray(ServiceInstance[]::new));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", supplier));
+        return latencyAware
+                ? new LatencyAwareLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                        "users-service", stats)
+                : new RoundRobinLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                        "users-service");
+    }
+
+    private static double exponential(Random random, double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+
+    private static String millis(long[] sorted, double quantile) {
+        long nanos = sorted[Math.min(sorted.length - 1, (int) (quantile * sorted.length))];
+        return String.format("%.1fms", nanos / 1e6);
+    }
+}
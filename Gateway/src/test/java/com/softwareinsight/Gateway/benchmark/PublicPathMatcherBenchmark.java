@@ -0,0 +1,122 @@
+package com.softwareinsight.Gateway.benchmark;
+
+import com.softwareinsight.Gateway.util.PublicPathMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public-path check in AuthenticationFilter, per request
+ *
+ * Compares the previous contains/endsWith chain, a list of Spring PathPatterns and the
+ * PublicPathMatcher trie over route tables of different sizes. Each invocation checks a
+ * mix of request paths, most of them protected (the common case).
+ *
+ * Run main() from the IDE, or after mvn test-compile:
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main PublicPathMatcherBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicPathMatcherBenchmark {
+
+    private static final String[] SERVICES = {"users", "orders", "payments", "catalog", "inventory", "shipping"};
+
+    private static final String[] PATHS = {
+            "/api/v1/users/42",
+            "/api/v1/users/username/alice",
+            "/api/v1/orders/1001/items",
+            "/api/v1/payments/pay_8f2c/refunds",
+            "/api/v1/users/health",
+            "/api/v1/catalog/public/products/17",
+            "/api/v1/shipping/rates",
+            "/api/v1/inventory/sku-123/stock"
+    };
+
+    /**
+     * Public patterns per service: 1 = health only, 4 = a realistic mix
+     */
+    @Param({"1", "4"})
+    public int patternsPerService;
+
+    private PublicPathMatcher trie;
+    private List<PathPattern> pathPatterns;
+    private PathContainer[] parsedPaths;
+
+    @Setup
+    public void setUp() {
+        List<String> patterns = new ArrayList<>();
+        for (String service : SERVICES) {
+            patterns.add("/api/v1/" + service + "/health");
+            if (patternsPerService > 1) {
+                patterns.add("/api/v1/" + service + "/public/**");
+                patterns.add("/api/v1/" + service + "/docs/*");
+                patterns.add("/api/v1/" + service + "/{id}/preview");
+            }
+        }
+
+        trie = PublicPathMatcher.compile(patterns);
+        pathPatterns = patterns.stream().map(PathPatternParser.defaultInstance::parse).toList();
+
+        // The Gateway request already carries a parsed path, so PathPattern does not pay for parsing here
+        parsedPaths = new PathContainer[PATHS.length];
+        for (int i = 0; i < PATHS.length; i++) {
+            parsedPaths[i] = PathContainer.parsePath(PATHS[i]);
+        }
+    }
+
+    /**
+     * Previous AuthenticationFilter.isPublicEndpoint (independent of the route table)
+     */
+    @Benchmark
+    public void containsChain(Blackhole bh) {
+        for (String path : PATHS) {
+            bh.consume(path.contains("/health") ||
+                    path.contains("/actuator") ||
+                    path.endsWith("/register") ||
+                    path.endsWith("/login") ||
+                    path.contains("/public"));
+        }
+    }
+
+    @Benchmark
+    public void pathPatternList(Blackhole bh) {
+        for (PathContainer path : parsedPaths) {
+            boolean matched = false;
+            for (PathPattern pattern : pathPatterns) {
+                if (pattern.matches(path)) {
+                    matched = true;
+                    break;
+                }
+            }
+            bh.consume(matched);
+        }
+    }
+
+    @Benchmark
+    public void segmentTrie(Blackhole bh) {
+        for (String path : PATHS) {
+            bh.consume(trie.matches(path));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PublicPathMatcherBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
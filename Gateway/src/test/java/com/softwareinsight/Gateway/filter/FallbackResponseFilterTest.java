@@ -0,0 +1,52 @@
+package com.softwareinsight.Gateway.filter;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FallbackResponseFilterTest {
+
+    private final GatewayFilter filter = new FallbackResponseFilter().apply(config("Users Service is down."));
+
+    @Test
+    void openCircuitIsAnsweredWithFallbackBody() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, ex -> Mono.error(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("users")))).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(exchange.getResponse().getBodyAsString().block())
+                .contains("\"message\":\"Users Service is down.\"")
+                .contains("\"circuitBreakerActivated\":true");
+    }
+
+    @Test
+    void successfulResponsePassesThrough() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        }).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/42"));
+    }
+
+    private static FallbackResponseFilter.Config config(String message) {
+        FallbackResponseFilter.Config config = new FallbackResponseFilter.Config();
+        config.setMessage(message);
+        return config;
+    }
+}
@@ -0,0 +1,343 @@
+package com.softwareinsight.Gateway.filter;
+
+import com.softwareinsight.Gateway.loadbalancer.InstanceStats;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+
+class HedgingFilterTest {
+
+    private static final Duration INITIAL_LATENCY = Duration.ofMillis(10);
+
+    private HttpServer slow;
+    private HttpServer fast;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InstanceStats instanceStats = new InstanceStats(
+            Duration.ofSeconds(10), INITIAL_LATENCY, Duration.ofMinutes(10), System::nanoTime);
+
+    @BeforeEach
+    void startServers() throws Exception {
+        slow = server("slow", 1_000);
+        fast = server("fast", 0);
+    }
+
+    @AfterEach
+    void stopServers() {
+        slow.stop(0);
+        fast.stop(0);
+    }
+
+    @Test
+    void slowInstanceIsHedgedToAnotherInstance() {
+        GatewayFilter filter = filter(config(10));
+        // First call pays for class loading and connection setup
+        filter.filter(exchange(MockServerHttpRequest.get("/api/v1/users/1")), ex -> Mono.empty()).block();
+
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+        long start = System.nanoTime();
+        filter.filter(exchange, ex -> Mono.error(new AssertionError("not routed by hedging"))).block();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(elapsedMillis).isLessThan(500);
+        assertThat(meterRegistry.get("gateway.hedging.hedges.won").counter().count()).isEqualTo(2);
+        assertThat((Object) exchange.getAttribute(CLIENT_RESPONSE_ATTR)).isInstanceOf(HttpClientResponse.class);
+        assertThat(exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR).toString()).contains(":" + fast.getAddress().getPort());
+    }
+
+    @Test
+    void losingFirstRequestIsGivenUpAfterMaxDelayAndRecordedCensored() throws Exception {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+
+        filter(config(10)).filter(exchange, ex -> Mono.empty()).block();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+
+        // The losing first request runs on for max-delay after the hedge won, not to its answer a second in
+        Timer latency = meterRegistry.get("gateway.hedging.latency").timer();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (latency.count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(latency.count()).isEqualTo(1);
+        assertThat(latency.max(TimeUnit.MILLISECONDS)).isBetween(100.0, 900.0);
+    }
+
+    @Test
+    void failedFirstRequestIsHedgedAtOnce() throws Exception {
+        HedgingFilter.Config config = config(10);
+        config.setMinDelay(Duration.ofSeconds(2));
+        config.setMaxDelay(Duration.ofSeconds(2));
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://127.0.0.1:" + refusedPort() + "/api/v1/users/42"));
+
+        long start = System.nanoTime();
+        filter(config).filter(exchange, ex -> Mono.empty()).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void refusedConnectionToTheOnlyInstanceFailsWithoutWaitingForTheHedgeDelay() throws Exception {
+        int port = refusedPort();
+        HedgingFilter.Config config = config(10);
+        config.setMinDelay(Duration.ofSeconds(2));
+        config.setMaxDelay(Duration.ofSeconds(2));
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://127.0.0.1:" + port + "/api/v1/users/42"));
+        GatewayFilter filter = filter(config,
+                new DefaultServiceInstance("only", "USERS-SERVICE", "127.0.0.1", port, false));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> filter.filter(exchange, ex -> Mono.empty()).block(Duration.ofSeconds(5)))
+                .hasMessageContaining("Connection refused");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("gateway.hedging.hedges").counter().count()).isZero();
+    }
+
+    @Test
+    void hedgedRequestIsRecordedForEachInstanceCalled() throws Exception {
+        ServiceInstance slowInstance = instance("slow", slow);
+        ServiceInstance fastInstance = instance("fast", fast);
+        GatewayFilter hedging = filter(config(10));
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(slowInstance));
+
+        new LoadBalancerStatsFilter(instanceStats, Duration.ofSeconds(1))
+                .filter(exchange, ex -> hedging.filter(ex, chain -> Mono.empty()))
+                .block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(instanceStats.inFlight(fastInstance)).isZero();
+        assertThat(instanceStats.cost(fastInstance)).isNotEqualTo((double) INITIAL_LATENCY.toNanos());
+
+        // The first request is not sampled with the hedge's latency but with the time it ran
+        // until it was given up, max-delay after the hedge won
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (instanceStats.inFlight(slowInstance) > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(instanceStats.inFlight(slowInstance)).isZero();
+        assertThat(instanceStats.cost(slowInstance))
+                .isBetween((double) TimeUnit.MILLISECONDS.toNanos(90), (double) TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+    @Test
+    void cancelledHedgeLeavesNoSample() {
+        ServiceInstance slowInstance = instance("slow", slow);
+        ServiceInstance fastInstance = instance("fast", fast);
+        HedgingFilter.Config config = config(10);
+        config.setMinDelay(Duration.ZERO);
+        config.setMaxDelay(Duration.ZERO);
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://127.0.0.1:" + fast.getAddress().getPort() + "/api/v1/users/42"));
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(fastInstance));
+        GatewayFilter hedging = filter(config, slowInstance);
+
+        new LoadBalancerStatsFilter(instanceStats, Duration.ofSeconds(1))
+                .filter(exchange, ex -> hedging.filter(ex, chain -> Mono.empty()))
+                .block(Duration.ofSeconds(3));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(meterRegistry.get("gateway.hedging.hedges").counter().count()).isEqualTo(1);
+        assertThat(instanceStats.inFlight(slowInstance)).isZero();
+        assertThat(instanceStats.cost(slowInstance)).isEqualTo((double) INITIAL_LATENCY.toNanos());
+        assertThat(instanceStats.inFlight(fastInstance)).isZero();
+        assertThat(instanceStats.cost(fastInstance)).isNotEqualTo((double) INITIAL_LATENCY.toNanos());
+    }
+
+    @Test
+    void routeResponseTimeoutAppliesToEachAttempt() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("users-service").uri("lb://USERS-SERVICE").predicate(ex -> true)
+                .metadata(RESPONSE_TIMEOUT_ATTR, 200)
+                .build());
+
+        assertThatThrownBy(() -> filter(config(0)).filter(exchange, ex -> Mono.empty()).block(Duration.ofSeconds(3)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+    }
+
+    @Test
+    void preserveHostHeaderIsHonoured() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/host").header(HttpHeaders.HOST, "shop.example.com"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://127.0.0.1:" + fast.getAddress().getPort() + "/host"));
+        exchange.getAttributes().put(PRESERVE_HOST_HEADER_ATTRIBUTE, true);
+
+        filter(config(0)).filter(exchange, ex -> Mono.empty()).block(Duration.ofSeconds(3));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("shop.example.com");
+    }
+
+    @Test
+    void noHedgeWithoutBudget() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+
+        filter(config(0)).filter(exchange, ex -> Mono.error(new AssertionError("not routed by hedging"))).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("slow");
+        assertThat(meterRegistry.get("gateway.hedging.hedges").counter().count()).isZero();
+    }
+
+    @Test
+    void fastResponseDoesNotWaitForTheHedgeDelay() {
+        HedgingFilter.Config config = config(10);
+        config.setMaxDelay(Duration.ofSeconds(5));
+        config.setMinDelay(Duration.ofSeconds(5));
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://127.0.0.1:" + fast.getAddress().getPort() + "/api/v1/users/42"));
+
+        filter(config).filter(exchange, ex -> Mono.empty()).block(Duration.ofSeconds(3));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(meterRegistry.get("gateway.hedging.hedges").counter().count()).isZero();
+    }
+
+    @Test
+    void nonIdempotentRequestsAreLeftToTheRoutingFilter() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("/api/v1/users"));
+        AtomicBoolean routedNormally = new AtomicBoolean();
+
+        filter(config(10)).filter(exchange, ex -> {
+            routedNormally.set(true);
+            return Mono.empty();
+        }).block();
+
+        assertThat(routedNormally).isTrue();
+    }
+
+    private GatewayFilter filter(HedgingFilter.Config config) {
+        return filter(config, instance("fast", fast));
+    }
+
+    private GatewayFilter filter(HedgingFilter.Config config, ServiceInstance hedgeInstance) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = request -> Mono.just(new DefaultResponse(hedgeInstance));
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("loadBalancerFactory", new ReactiveLoadBalancer.Factory<ServiceInstance>() {
+            @Override
+            public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+                return loadBalancer;
+            }
+
+            @Override
+            public <X> Map<String, X> getInstances(String name, Class<X> type) {
+                return Map.of();
+            }
+
+            @Override
+            public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+                return null;
+            }
+        });
+
+        return new HedgingFilter(
+                HttpClient.create(),
+                new HttpClientProperties(),
+                beans.getBeanProvider(ResolvableType.forClassWithGenerics(List.class, HttpHeadersFilter.class)),
+                beans.getBeanProvider(ResolvableType.forClassWithGenerics(ReactiveLoadBalancer.Factory.class, ServiceInstance.class)),
+                instanceStats,
+                meterRegistry,
+                Duration.ofSeconds(1)).apply(config);
+    }
+
+    private static int refusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static ServiceInstance instance(String id, HttpServer server) {
+        return new DefaultServiceInstance(id, "USERS-SERVICE", "127.0.0.1", server.getAddress().getPort(), false);
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("users-service").uri("lb://USERS-SERVICE").predicate(ex -> true).build());
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://127.0.0.1:" + slow.getAddress().getPort() + "/api/v1/users/42"));
+        return exchange;
+    }
+
+    private static HedgingFilter.Config config(long maxBurst) {
+        HedgingFilter.Config config = new HedgingFilter.Config();
+        config.setRouteId("users-service");
+        config.setMinDelay(Duration.ofMillis(50));
+        config.setMaxDelay(Duration.ofMillis(50));
+        config.setMaxBurst(maxBurst);
+        return config;
+    }
+
+    private static HttpServer server(String body, long delayMillis) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String response = exchange.getRequestURI().getPath().equals("/host")
+                    ? exchange.getRequestHeaders().getFirst("Host")
+                    : body;
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,85 @@
+package com.softwareinsight.Gateway.filter;
+
+import com.softwareinsight.Gateway.loadbalancer.InstanceStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+class LoadBalancerStatsFilterTest {
+
+    private static final Duration INITIAL_LATENCY = Duration.ofMillis(10);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final InstanceStats stats = new InstanceStats(
+            Duration.ofSeconds(10), INITIAL_LATENCY, Duration.ofMinutes(10), clock::get);
+    private final LoadBalancerStatsFilter filter = new LoadBalancerStatsFilter(stats, Duration.ofSeconds(1));
+    private final ServiceInstance instance = new DefaultServiceInstance("a", "users-service", "a", 8080, false);
+
+    @Test
+    void completedExchangeIsRecorded() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, ex -> Mono.empty()).block();
+
+        assertThat(stats.inFlight(instance)).isZero();
+        assertThat(stats.cost(instance)).isLessThan(INITIAL_LATENCY.toNanos());
+    }
+
+    @Test
+    void serverErrorIsRecordedWithTheFailurePenalty() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
+            return Mono.empty();
+        }).block();
+
+        assertThat(stats.cost(instance)).isEqualTo(TimeUnit.SECONDS.toNanos(1), within(1.0));
+    }
+
+    @Test
+    void cancelledExchangeLeavesNoSample() {
+        MockServerWebExchange exchange = exchange();
+
+        Disposable running = filter.filter(exchange, ex -> Mono.never()).subscribe();
+        assertThat(stats.inFlight(instance)).isEqualTo(1);
+        running.dispose();
+
+        assertThat(stats.inFlight(instance)).isZero();
+        assertThat(stats.cost(instance)).isEqualTo(INITIAL_LATENCY.toNanos(), within(1.0));
+    }
+
+    @Test
+    void exchangeTakenOverByAnotherFilterIsNotRecordedTwice() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, ex -> {
+            ex.getAttributes().remove(LoadBalancerStatsFilter.IN_FLIGHT_INSTANCE_ATTR);
+            return Mono.empty();
+        }).block();
+
+        // The filter that took the request over records it; here nobody did
+        assertThat(stats.inFlight(instance)).isEqualTo(1);
+        assertThat(stats.cost(instance)).isEqualTo(2.0 * INITIAL_LATENCY.toNanos(), within(1.0));
+    }
+
+    private MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/42"));
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(instance));
+        return exchange;
+    }
+}
@@ -0,0 +1,94 @@
+package com.softwareinsight.Gateway.filter;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoggingFilterTest {
+
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger("gateway.access");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        accessLogger.detachAppender(appender);
+    }
+
+    @Test
+    void writesOneLinePerExchange() {
+        MockServerWebExchange exchange = exchange("/api/v1/users/42?token=secret");
+
+        new LoggingFilter(true, 1.0).filter(exchange, respondWith(HttpStatus.OK)).block();
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .matches("method=GET path=/api/v1/users/42 status=200 duration_ms=\\d+\\.\\d{3} remote=10\\.0\\.0\\.7");
+    }
+
+    @Test
+    void unsampledSuccessIsNotLogged() {
+        new LoggingFilter(true, 0.0).filter(exchange("/api/v1/users/42"), respondWith(HttpStatus.OK)).block();
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void serverErrorsAreLoggedEvenWhenNotSampled() {
+        new LoggingFilter(true, 0.0)
+                .filter(exchange("/api/v1/users/42"), respondWith(HttpStatus.SERVICE_UNAVAILABLE)).block();
+
+        assertThat(appender.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .asString().startsWith("method=GET path=/api/v1/users/42 status=503 ");
+    }
+
+    @Test
+    void disabledFilterLogsNothing() {
+        new LoggingFilter(false, 1.0).filter(exchange("/api/v1/users/42"), respondWith(HttpStatus.OK)).block();
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void durationIsFormattedAsMillisecondsWithMicroPrecision() {
+        MockServerWebExchange exchange = exchange("/x");
+
+        String line = LoggingFilter.accessLine(exchange.getRequest(), HttpStatus.OK,
+                TimeUnit.MICROSECONDS.toNanos(12_045), SignalType.CANCEL);
+
+        assertThat(line).isEqualTo("method=GET path=/x status=200 duration_ms=12.045 remote=10.0.0.7 signal=cancel");
+    }
+
+    private static MockServerWebExchange exchange(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri)
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 54321)));
+    }
+
+    private static GatewayFilterChain respondWith(HttpStatus status) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package com.softwareinsight.Gateway.filter;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class TimingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void setsTimingHeadersPerRequest() {
+        MockServerWebExchange exchange = exchange();
+
+        filter(false).filter(exchange, proxied(HttpStatus.OK, "10.0.0.9")).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(TimingFilter.SERVER_TIMING_HEADER))
+                .matches("gateway;dur=\\d+\\.\\d{3}, upstream;dur=\\d+\\.\\d{3}");
+        assertThat(exchange.getResponse().getHeaders().getFirst(TimingFilter.RESPONSE_TIME_HEADER))
+                .matches("\\d+\\.\\d{3}ms");
+    }
+
+    @Test
+    void recordsTimersTaggedByRouteAndStatus() {
+        filter(false).filter(exchange(), proxied(HttpStatus.SERVICE_UNAVAILABLE, "10.0.0.9")).block();
+
+        Timer total = meterRegistry.get("gateway.route.latency").tags("route", "users-service", "status", "5xx").timer();
+
+        assertThat(total.count()).isEqualTo(1);
+        assertThat(total.getId().getTag("upstream")).isNull();
+    }
+
+    @Test
+    void recordsTimersTaggedByUpstreamWhenEnabled() {
+        filter(true).filter(exchange(), proxied(HttpStatus.SERVICE_UNAVAILABLE, "10.0.0.9")).block();
+
+        Timer total = meterRegistry.get("gateway.route.latency")
+                .tags("route", "users-service", "status", "5xx", "upstream", "10.0.0.9:8081")
+                .timer();
+        Timer upstream = meterRegistry.get("gateway.route.upstream.latency")
+                .tags("route", "users-service", "status", "5xx", "upstream", "10.0.0.9:8081")
+                .timer();
+
+        assertThat(total.count()).isEqualTo(1);
+        assertThat(upstream.count()).isEqualTo(1);
+        assertThat(upstream.totalTime(TimeUnit.NANOSECONDS))
+                .isLessThanOrEqualTo(total.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void requestsWithoutUpstreamOnlyRecordTotalTime() {
+        MockServerWebExchange exchange = exchange();
+
+        filter(true).filter(exchange, ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return ex.getResponse().setComplete();
+        }).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(TimingFilter.SERVER_TIMING_HEADER))
+                .doesNotContain("upstream");
+        assertThat(meterRegistry.get("gateway.route.latency").tags("status", "4xx", "upstream", "none").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("gateway.route.upstream.latency").timers()).allMatch(timer -> timer.count() == 0);
+    }
+
+    @Test
+    void upstreamTimersOfIdleInstancesAreRemoved() {
+        TimingFilter filter = filter(true);
+        filter.filter(exchange(), proxied(HttpStatus.OK, "10.0.0.9")).block();
+
+        // The instance leaves discovery; traffic goes elsewhere
+        clock.addAndGet(Duration.ofMinutes(11).toNanos());
+        filter.filter(exchange(), proxied(HttpStatus.OK, "10.0.0.10")).block();
+
+        assertThat(meterRegistry.find("gateway.route.latency").tag("upstream", "10.0.0.9:8081").timer()).isNull();
+        assertThat(meterRegistry.find("gateway.route.upstream.latency").tag("upstream", "10.0.0.9:8081").timer())
+                .isNull();
+        assertThat(meterRegistry.get("gateway.route.latency").tag("upstream", "10.0.0.10:8081").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void upstreamTimersAreBoundedByMaxTimers() {
+        TimingFilter filter = new TimingFilter(meterRegistry, true, true, true, 2, Duration.ofMinutes(10), clock::get);
+
+        for (int i = 1; i <= 20; i++) {
+            filter.filter(exchange(), proxied(HttpStatus.OK, "10.0.1." + i)).block();
+        }
+
+        assertThat(meterRegistry.find("gateway.route.latency").timers()).hasSizeLessThanOrEqualTo(2);
+    }
+
+    private TimingFilter filter(boolean upstreamTag) {
+        return new TimingFilter(meterRegistry, true, true, upstreamTag, 1000, Duration.ofMinutes(10), clock::get);
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/42"));
+    }
+
+    /**
+     * Stands in for routing, load balancing and UpstreamTimingFilter
+     */
+    private static GatewayFilterChain proxied(HttpStatus status, String host) {
+        return exchange -> {
+            exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                    .id("users-service").uri("lb://USERS-SERVICE").predicate(ex -> true).build());
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("http://" + host + ":8081/api/v1/users/42"));
+            return new UpstreamTimingFilter().filter(exchange, ex -> {
+                ex.getResponse().setStatusCode(status);
+                return ex.getResponse().setComplete();
+            });
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package com.softwareinsight.Gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyAwareLoadBalancerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final InstanceStats stats = new InstanceStats(
+            Duration.ofSeconds(10), Duration.ofMillis(10), Duration.ofMinutes(10), clock::get);
+
+    private final List<ServiceInstance> instances = List.of(
+            instance("a"), instance("b"), instance("c"), instance("d"));
+
+    @Test
+    void slowInstanceGetsFewerRequests() {
+        LatencyAwareLoadBalancer loadBalancer = loadBalancer();
+        for (ServiceInstance instance : instances) {
+            record(instance, instance.getHost().equals("d") ? 200 : 10);
+        }
+
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < 4000; i++) {
+            picks.merge(loadBalancer.choose(instances).getHost(), 1, Integer::sum);
+        }
+
+        // Round robin would give d 1000; P2C only picks it when both random choices are d - never
+        assertThat(picks.getOrDefault("d", 0)).isZero();
+        assertThat(picks.get("a")).isGreaterThan(1000);
+    }
+
+    @Test
+    void inFlightRequestsMakeAnInstanceMoreExpensive() {
+        record(instances.get(0), 10);
+        record(instances.get(1), 10);
+        for (int i = 0; i < 5; i++) {
+            stats.started("a", 8080);
+        }
+
+        assertThat(stats.inFlight(instances.get(0))).isEqualTo(5);
+        assertThat(stats.cost(instances.get(0))).isGreaterThan(stats.cost(instances.get(1)));
+        assertThat(loadBalancer().choose(instances.subList(0, 2)).getHost()).isEqualTo("b");
+    }
+
+    @Test
+    void slowSampleIsTakenAtOnceAndDecaysWhenIdle() {
+        ServiceInstance a = instances.get(0);
+        record(a, 10);
+        record(a, 500);
+        double peak = stats.cost(a);
+        assertThat(peak).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500), within(1.0));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        assertThat(stats.cost(a)).isLessThan(peak / 10);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        assertThat(stats.cost(a)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10), within(1.0));
+    }
+
+    @Test
+    void newInstanceIsCostedAtInitialLatencyAndItsInFlightRequestsCount() {
+        ServiceInstance warm = instances.get(0);
+        ServiceInstance cold = instances.get(1);
+        record(warm, 50);
+        assertThat(stats.cost(cold)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10), within(1.0));
+
+        for (int i = 0; i < 5; i++) {
+            stats.started(cold.getHost(), cold.getPort());
+        }
+
+        assertThat(stats.cost(cold)).isGreaterThan(stats.cost(warm));
+        assertThat(loadBalancer().choose(instances.subList(0, 2))).isEqualTo(warm);
+    }
+
+    @Test
+    void idleInstancesAreEvictedButNotWhileRequestsAreInFlight() {
+        record(instances.get(0), 10);
+        stats.started("b", 8080);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(11));
+
+        assertThat(stats.trackedInstances()).isEqualTo(1);
+        assertThat(stats.inFlight(instances.get(1))).isEqualTo(1);
+
+        stats.finished("b", 8080, TimeUnit.MILLISECONDS.toNanos(10));
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(11));
+
+        assertThat(stats.trackedInstances()).isZero();
+    }
+
+    @Test
+    void choosesFromServiceInstanceListSupplier() {
+        Response<ServiceInstance> response = loadBalancer().choose(new DefaultRequest<>()).block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.hasServer()).isTrue();
+        assertThat(instances).contains(response.getServer());
+    }
+
+    @Test
+    void emptyInstanceListGivesEmptyResponse() {
+        ServiceInstanceListSupplier empty = ServiceInstanceListSuppliers.from("users-service");
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", empty));
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+                beanFactory.getBeanProvider(ServiceInstanceListSupplier.class), "users-service", stats);
+
+        Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>()).block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.hasServer()).isFalse();
+    }
+
+    private LatencyAwareLoadBalancer loadBalancer() {
+        ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from("users-service",
+                instances.toArray(ServiceInstance[]::new));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", supplier));
+        return new LatencyAwareLoadBalancer(
+                beanFactory.getBeanProvider(ServiceInstanceListSupplier.class), "users-service", stats);
+    }
+
+    private void record(ServiceInstance instance, long millis) {
+        stats.started(instance.getHost(), instance.getPort());
+        stats.finished(instance.getHost(), instance.getPort(), TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance(host, "users-service", host, 8080, false);
+    }
+}
@@ -0,0 +1,95 @@
+package com.softwareinsight.Gateway.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private LocalRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LocalRateLimiter(null, 1000, Duration.ofMinutes(5), true, clock::get);
+        limiter.getConfig().put("users", config(10, 20));
+    }
+
+    @Test
+    void allowsBurstThenRefuses() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(allowed("users", "user:alice")).isTrue();
+        }
+        assertThat(allowed("users", "user:alice")).isFalse();
+    }
+
+    @Test
+    void refillsAtReplenishRate() {
+        for (int i = 0; i < 20; i++) {
+            allowed("users", "user:alice");
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(300)); // 3 tokens at 10/s
+
+        assertThat(allowed("users", "user:alice")).isTrue();
+        assertThat(allowed("users", "user:alice")).isTrue();
+        assertThat(allowed("users", "user:alice")).isTrue();
+        assertThat(allowed("users", "user:alice")).isFalse();
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        for (int i = 0; i < 20; i++) {
+            allowed("users", "user:alice");
+        }
+
+        assertThat(allowed("users", "user:alice")).isFalse();
+        assertThat(allowed("users", "user:bob")).isTrue();
+    }
+
+    @Test
+    void reportsRemainingTokensInRedisLimiterHeaders() {
+        Response response = limiter.isAllowed("users", "ip:10.0.0.7").block();
+
+        assertThat(response.getHeaders())
+                .containsEntry(RedisRateLimiter.REMAINING_HEADER, "19")
+                .containsEntry(RedisRateLimiter.REPLENISH_RATE_HEADER, "10")
+                .containsEntry(RedisRateLimiter.BURST_CAPACITY_HEADER, "20");
+    }
+
+    @Test
+    void remoteConsumptionDrainsLocalBucket() {
+        assertThat(allowed("users", "user:alice")).isTrue();
+
+        limiter.forEachBucket((key, bucket) -> limiter.consumeRemote(key, bucket, 1_000));
+
+        assertThat(allowed("users", "user:alice")).isFalse();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(allowed("users", "user:alice")).isTrue();
+    }
+
+    @Test
+    void unknownRouteIsAConfigurationError() {
+        assertThatThrownBy(() -> limiter.isAllowed("orders", "user:alice"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private boolean allowed(String routeId, String id) {
+        return limiter.isAllowed(routeId, id).block().isAllowed();
+    }
+
+    private static LocalRateLimiter.Config config(int replenishRate, long burstCapacity) {
+        LocalRateLimiter.Config config = new LocalRateLimiter.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        return config;
+    }
+}
@@ -0,0 +1,129 @@
+package com.softwareinsight.Gateway.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitSyncTest {
+
+    private static final long NOW_MILLIS = 1_700_000_000_000L;
+    private static final Duration INTERVAL = Duration.ofSeconds(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final Map<String, Long> counters = new HashMap<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final ReactiveStringRedisTemplate redis = mock(ReactiveStringRedisTemplate.class);
+    private LocalRateLimiter limiter;
+    private RateLimitSync sync;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LocalRateLimiter(null, 1000, Duration.ofMinutes(5), true, clock::get);
+        LocalRateLimiter.Config config = new LocalRateLimiter.Config();
+        config.setReplenishRate(10);
+        config.setBurstCapacity(20);
+        limiter.getConfig().put("users", config);
+        sync = new RateLimitSync(limiter, null, true, INTERVAL, Duration.ofSeconds(1), 2, () -> NOW_MILLIS);
+    }
+
+    @Test
+    void remoteConsumptionIsDrainedFromLocalBuckets() {
+        redisRunsSyncScript();
+        take("user:alice", 5);
+        counters.put(counter("user:alice"), 10L); // taken on the other replicas
+
+        sync.sync(redis).block();
+
+        assertThat(counters).containsEntry(counter("user:alice"), 15L);
+        assertThat(take("user:alice", 6)).isEqualTo(5);
+    }
+
+    @Test
+    void bucketWithoutLocalTrafficStillLearnsRemoteConsumption() {
+        redisRunsSyncScript();
+        take("user:alice", 1);
+        sync.sync(redis).block();
+
+        counters.merge(counter("user:alice"), 19L, Long::sum);
+        sync.sync(redis).block();
+
+        assertThat(take("user:alice", 1)).isZero();
+    }
+
+    @Test
+    void bucketsAreSyncedInBatches() {
+        redisRunsSyncScript();
+        take("user:alice", 1);
+        take("user:bob", 1);
+        take("user:carol", 1);
+
+        sync.sync(redis).block();
+
+        assertThat(batchSizes).containsExactlyInAnyOrder(2, 1);
+        assertThat(counters).hasSize(3);
+    }
+
+    @Test
+    void redisFailureFallsBackToPerReplicaLimits() {
+        when(redis.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("Connection refused")));
+        take("user:alice", 5);
+
+        sync.sync(redis).block(Duration.ofSeconds(2));
+
+        assertThat(take("user:alice", 20)).isEqualTo(15);
+    }
+
+    /**
+     * Runs the sync script's INCRBY / GET logic against the counters map
+     */
+    @SuppressWarnings("unchecked")
+    private void redisRunsSyncScript() {
+        when(redis.execute(any(RedisScript.class), anyList(), anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            List<String> args = invocation.getArgument(2);
+            batchSizes.add(keys.size());
+            List<Long> totals = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                long delta = Long.parseLong(args.get(i + 1));
+                totals.add(delta > 0
+                        ? counters.merge(keys.get(i), delta, Long::sum)
+                        : counters.getOrDefault(keys.get(i), 0L));
+            }
+            return Flux.just(totals);
+        });
+    }
+
+    /**
+     * @return how many of the requests were allowed
+     */
+    private int take(String id, int requests) {
+        int allowed = 0;
+        for (int i = 0; i < requests; i++) {
+            if (limiter.isAllowed("users", id).block().isAllowed()) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    private static String counter(String id) {
+        return RateLimitSync.redisKey(new LocalRateLimiter.BucketKey("users", id), NOW_MILLIS / INTERVAL.toMillis());
+    }
+}
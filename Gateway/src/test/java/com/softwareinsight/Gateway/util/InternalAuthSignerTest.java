@@ -0,0 +1,57 @@
+package com.softwareinsight.Gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InternalAuthSignerTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final InternalAuthSigner signer = new InternalAuthSigner(SECRET);
+
+    @Test
+    void markerCoversIdentityMethodPathAndToken() throws Exception {
+        String marker = signer.sign("alice", "42", "[ROLE_USER]", "GET", "/api/v1/users/42", "token");
+
+        String[] parts = marker.split(":", 3);
+        assertThat(parts[0]).isEqualTo("v2");
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] expected = mac.doFinal(("alice\n42\n[ROLE_USER]\nGET\n/api/v1/users/42\ntoken\n" + parts[1])
+                .getBytes(StandardCharsets.UTF_8));
+        assertThat(Base64.getUrlDecoder().decode(parts[2])).isEqualTo(expected);
+    }
+
+    @Test
+    void differentCallsGetDifferentMarkers() {
+        String marker = signature(signer.sign("alice", "42", "[ROLE_USER]", "GET", "/api/v1/users/42", "token"));
+
+        assertThat(signature(signer.sign("alice", "42", "[ROLE_USER]", "DELETE", "/api/v1/users/42", "token")))
+                .isNotEqualTo(marker);
+        assertThat(signature(signer.sign("alice", "42", "[ROLE_USER]", "GET", "/api/v1/users/7", "token")))
+                .isNotEqualTo(marker);
+        assertThat(signature(signer.sign("alice", "42", "[ROLE_USER]", "GET", "/api/v1/users/42", "other")))
+                .isNotEqualTo(marker);
+    }
+
+    @Test
+    void missingOrShortSecretIsRejected() {
+        assertThatThrownBy(() -> new InternalAuthSigner(""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("gateway.internal-auth.secret");
+        assertThatThrownBy(() -> new InternalAuthSigner("Hallo123!"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String signature(String marker) {
+        return marker.substring(marker.lastIndexOf(':') + 1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.softwareinsight.Gateway.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonErrorResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void errorBodyEscapesMessageAndPath() throws Exception {
+        MockServerHttpResponse response = new MockServerHttpResponse();
+
+        JsonErrorResponses.writeError(response, HttpStatus.NOT_FOUND, "No \"route\"\nfor\\path", "/api/\"x\"").block();
+
+        JsonNode body = objectMapper.readTree(response.getBodyAsString().block());
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(body.get("status").asInt()).isEqualTo(404);
+        assertThat(body.get("error").asText()).isEqualTo("Not Found");
+        assertThat(body.get("message").asText()).isEqualTo("No \"route\"\nfor\\path");
+        assertThat(body.get("path").asText()).isEqualTo("/api/\"x\"");
+        assertThat(body.get("timestamp").asText()).isNotBlank();
+    }
+
+    @Test
+    void fallbackBodyIsSharedAndReusable() throws Exception {
+        ByteBuffer prefix = JsonErrorResponses.fallbackPrefix("Users Service is temporarily unavailable.");
+
+        for (int i = 0; i < 2; i++) {
+            MockServerHttpResponse response = new MockServerHttpResponse();
+            JsonErrorResponses.writeFallback(response, prefix).block();
+
+            String json = response.getBodyAsString().block();
+            JsonNode body = objectMapper.readTree(json);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(response.getHeaders().getContentLength()).isEqualTo(json.getBytes(StandardCharsets.UTF_8).length);
+            assertThat(body.get("message").asText()).isEqualTo("Users Service is temporarily unavailable.");
+            assertThat(body.get("circuitBreakerActivated").asBoolean()).isTrue();
+        }
+        assertThat(prefix.position()).isZero();
+    }
+}
@@ -0,0 +1,139 @@
+package com.softwareinsight.Gateway.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwksKeyCacheTest {
+
+    private HttpServer server;
+    private final AtomicInteger fetches = new AtomicInteger();
+    private volatile String jwks = "{\"keys\":[]}";
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = jwks.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void unknownKidIsResolvedAfterRefreshAndRotatedKeysArePickedUp() throws Exception {
+        KeyPair first = Jwts.SIG.EdDSA.keyPair().build();
+        KeyPair second = Jwts.SIG.EdDSA.keyPair().build();
+        JwksKeyCache keyCache = keyCache(Duration.ZERO);
+        JwtUtil jwtUtil = jwtUtil(keyCache);
+
+        jwks = jwkSet(first, "k1");
+        String token = token(first, "k1");
+        assertThatThrownBy(() -> jwtUtil.verifyAndExtractClaims(token)).isInstanceOf(UnknownSigningKeyException.class);
+
+        keyCache.refresh().block();
+        assertThat(jwtUtil.verifyAndExtractClaims(token).getSubject()).isEqualTo("alice");
+
+        // Auth Service rotates to a new key - no restart, one refresh
+        jwks = jwkSet(second, "k2");
+        String rotated = token(second, "k2");
+        assertThatThrownBy(() -> jwtUtil.verifyAndExtractClaims(rotated)).isInstanceOf(UnknownSigningKeyException.class);
+
+        keyCache.refresh().block();
+        assertThat(jwtUtil.verifyAndExtractClaims(rotated).getSubject()).isEqualTo("alice");
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void refreshesWithinTheMinimumIntervalShareOneFetch() {
+        JwksKeyCache keyCache = keyCache(Duration.ofMinutes(1));
+
+        keyCache.refresh().block();
+        keyCache.refresh().block();
+        keyCache.refresh().block();
+
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void tokensWithoutKidAreRejectedAfterTheSwitchUnlessLegacyHs256IsAccepted() {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        String legacy = Jwts.builder()
+                .subject("alice")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(keyBytes))
+                .compact();
+
+        JwtUtil jwtUtil = jwtUtil(keyCache(Duration.ZERO));
+        ReflectionTestUtils.setField(jwtUtil, "secret", Encoders.BASE64.encode(keyBytes));
+        assertThat(jwtUtil.verifyAndExtractClaims(legacy).getSubject()).isEqualTo("alice");
+
+        ReflectionTestUtils.setField(jwtUtil, "signingAlgorithm", "EdDSA");
+        assertThatThrownBy(() -> jwtUtil.verifyAndExtractClaims(legacy)).isInstanceOf(UnsupportedJwtException.class);
+
+        ReflectionTestUtils.setField(jwtUtil, "acceptLegacyHs256", true);
+        assertThat(jwtUtil.verifyAndExtractClaims(legacy).getSubject()).isEqualTo("alice");
+    }
+
+    private JwksKeyCache keyCache(Duration minRefreshInterval) {
+        String uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json";
+        return new JwksKeyCache(
+                new StaticListableBeanFactory().getBeanProvider(ReactorLoadBalancerExchangeFilterFunction.class),
+                true, uri, minRefreshInterval, Duration.ofMinutes(15), Duration.ofSeconds(2));
+    }
+
+    private static JwtUtil jwtUtil(JwksKeyCache keyCache) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwksKeyCache", keyCache);
+        return jwtUtil;
+    }
+
+    private static String jwkSet(KeyPair keyPair, String kid) throws Exception {
+        PublicJwk<?> jwk = Jwks.builder().key(keyPair.getPublic()).id(kid).build();
+        return new ObjectMapper().writeValueAsString(Map.of("keys", List.of(jwk)));
+    }
+
+    private static String token(KeyPair keyPair, String kid) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .subject("alice")
+                .claim("roles", List.of("ROLE_USER"))
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.EdDSA)
+                .compact();
+    }
+}
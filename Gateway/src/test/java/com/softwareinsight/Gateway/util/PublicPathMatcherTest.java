@@ -0,0 +1,57 @@
+package com.softwareinsight.Gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublicPathMatcherTest {
+
+    private final PublicPathMatcher matcher = PublicPathMatcher.compile(List.of(
+            "/api/v1/users/health",
+            "/api/v1/auth/login",
+            "/api/v1/users/{userId}/avatar",
+            "/api/v1/*/public/**",
+            "/actuator/**"));
+
+    @Test
+    void literalWildcardAndRestPatternsMatch() {
+        assertThat(matcher.matches("/api/v1/users/health")).isTrue();
+        assertThat(matcher.matches("/api/v1/users/42/avatar")).isTrue();
+        assertThat(matcher.matches("/api/v1/orders/public/catalog/7")).isTrue();
+        assertThat(matcher.matches("/api/v1/orders/public")).isTrue();
+        assertThat(matcher.matches("/actuator")).isTrue();
+        assertThat(matcher.matches("/actuator/health/liveness")).isTrue();
+        assertThat(matcher.matches("//api/v1/users/health/")).isTrue();
+    }
+
+    @Test
+    void pathsThatOnlyContainAPublicWordDoNotMatch() {
+        assertThat(matcher.matches("/api/v1/users/42")).isFalse();
+        assertThat(matcher.matches("/api/v1/users/health/secrets")).isFalse();
+        assertThat(matcher.matches("/api/v1/users/publicity")).isFalse();
+        assertThat(matcher.matches("/api/v1/users/42/actuator")).isFalse();
+        assertThat(matcher.matches("/api/v1/users/%68ealth")).isFalse();
+        assertThat(matcher.matches("/api/v1/users/42/login")).isFalse();
+        assertThat(matcher.matches("/")).isFalse();
+    }
+
+    @Test
+    void wildcardIsTriedWhenTheLiteralBranchFails() {
+        PublicPathMatcher overlapping = PublicPathMatcher.compile(List.of("/api/v1/login", "/api/*/health"));
+
+        assertThat(overlapping.matches("/api/v1/health")).isTrue();
+        assertThat(overlapping.matches("/api/v2/login")).isFalse();
+    }
+
+    @Test
+    void emptyConfigurationMatchesNothingAndInvalidPatternsAreRejected() {
+        assertThat(PublicPathMatcher.compile(List.of()).matches("/api/v1/users/health")).isFalse();
+        assertThatThrownBy(() -> PublicPathMatcher.compile(List.of("api/v1/health")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PublicPathMatcher.compile(List.of("/api/**/health")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.softwareinsight.Gateway.util;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    private byte[] keyBytes;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", Encoders.BASE64.encode(keyBytes));
+
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(jwtUtil, meterRegistry, true, 100);
+    }
+
+    @Test
+    void secondLookupOfSameTokenIsACacheHit() {
+        String token = token("alice", 60_000);
+
+        TokenPrincipal first = cache.getOrVerify(token);
+        TokenPrincipal second = cache.getOrVerify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.username()).isEqualTo("alice");
+        assertThat(first.rolesHeader()).isEqualTo("[ROLE_USER]");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void invalidTokenIsRejectedAndNotCached() {
+        String token = token("bob", 60_000) + "x";
+
+        assertThatThrownBy(() -> cache.getOrVerify(token)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.getOrVerify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        assertThatThrownBy(() -> cache.getOrVerify(token("carol", -1_000))).isInstanceOf(JwtException.class);
+    }
+
+    private String token(String username, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .subject(username)
+                .claim("roles", List.of("ROLE_USER"))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMillis))
+                .signWith(Keys.hmacShaKeyFor(keyBytes))
+                .compact();
+    }
+}
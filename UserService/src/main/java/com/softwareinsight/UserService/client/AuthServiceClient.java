@@ -2,9 +2,11 @@ package com.softwareinsight.UserService.client;
 
 import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -29,4 +31,18 @@ public interface AuthServiceClient {
     @PostMapping("/api/v1/auth/validate")
     @Retry(name = "authService")
     Map<String, Object> validateToken(@RequestBody Map<String, String> request);
+
+    /**
+     * Validate several JWT tokens in one call
+     * Request body: {"tokens": [...]}; results come back in the same order
+     */
+    @PostMapping("/api/v1/auth/validate/batch")
+    @Retry(name = "authService")
+    List<Map<String, Object>> validateTokens(@RequestBody Map<String, List<String>> request);
+
+    /**
+     * Public token-signing keys as a JWK set document
+     */
+    @GetMapping("/.well-known/jwks.json")
+    String jwks();
 }
\ No newline at end of file
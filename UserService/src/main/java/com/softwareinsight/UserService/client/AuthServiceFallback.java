@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,7 +19,29 @@ public class AuthServiceFallback implements AuthServiceClient {
     @Override
     public Map<String, Object> validateToken(Map<String, String> request) {
         log.error("Auth Service is unavailable. Circuit breaker activated!");
+        return createFallbackResponse();
+    }
+
+    @Override
+    public List<Map<String, Object>> validateTokens(Map<String, List<String>> request) {
+        log.error("Auth Service is unavailable. Circuit breaker activated!");
+
+        List<String> tokens = request.getOrDefault("tokens", List.of());
+        return tokens.stream()
+                .map(token -> createFallbackResponse())
+                .toList();
+    }
+
+    /**
+     * No keys rather than an empty set, so the cached keys are kept
+     */
+    @Override
+    public String jwks() {
+        log.error("Auth Service is unavailable. Circuit breaker activated!");
+        return null;
+    }
 
+    private Map<String, Object> createFallbackResponse() {
         Map<String, Object> fallbackResponse = new HashMap<>();
         fallbackResponse.put("valid", false);
         fallbackResponse.put("message", "Auth service is temporarily unavailable");
@@ -0,0 +1,150 @@
+package com.softwareinsight.UserService.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batcher for token validation calls to Auth Service
+ *
+ * Concurrent validate() calls arriving within a short window (default 2ms) are sent
+ * as one POST /api/v1/auth/validate/batch; each caller gets its own result.
+ * A batch is sent early once it reaches max-size. Identical tokens in a window share one slot.
+ *
+ * Design Pattern: Request Coalescing
+ */
+@Component
+@Slf4j
+public class TokenValidationBatcher {
+
+    private final AuthServiceClient authServiceClient;
+    private final boolean enabled;
+    private final long windowMicros;
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<Map<String, Object>>> pending = new LinkedHashMap<>();
+    private long generation;
+
+    public TokenValidationBatcher(
+            AuthServiceClient authServiceClient,
+            @Value("${auth.validation.batch.enabled:true}") boolean enabled,
+            @Value("${auth.validation.batch.window-micros:2000}") long windowMicros,
+            @Value("${auth.validation.batch.max-size:100}") int maxBatchSize) {
+        this.authServiceClient = authServiceClient;
+        this.enabled = enabled;
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-validation-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Validate a token, sharing the HTTP exchange with other callers in the same window
+     * Blocks until the batch containing this token has been answered
+     */
+    public Map<String, Object> validate(String token) {
+        if (!enabled) {
+            return authServiceClient.validateToken(Map.of("token", token));
+        }
+
+        CompletableFuture<Map<String, Object>> result;
+        Map<String, CompletableFuture<Map<String, Object>>> full = null;
+
+        synchronized (lock) {
+            result = pending.get(token);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                pending.put(token, result);
+
+                if (pending.size() >= maxBatchSize) {
+                    full = takePending();
+                } else if (pending.size() == 1) {
+                    long scheduledGeneration = generation;
+                    timer.schedule(() -> flush(scheduledGeneration), windowMicros, TimeUnit.MICROSECONDS);
+                }
+            }
+        }
+
+        if (full != null) {
+            Map<String, CompletableFuture<Map<String, Object>>> batch = full;
+            sender.execute(() -> send(batch));
+        }
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Timer callback: send the batch if it has not already been sent for being full
+     */
+    private void flush(long scheduledGeneration) {
+        Map<String, CompletableFuture<Map<String, Object>>> batch;
+        synchronized (lock) {
+            if (scheduledGeneration != generation || pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        sender.execute(() -> send(batch));
+    }
+
+    /**
+     * Must be called while holding the lock
+     */
+    private Map<String, CompletableFuture<Map<String, Object>>> takePending() {
+        Map<String, CompletableFuture<Map<String, Object>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        generation++;
+        return batch;
+    }
+
+    private void send(Map<String, CompletableFuture<Map<String, Object>>> batch) {
+        List<String> tokens = new ArrayList<>(batch.keySet());
+        log.debug("Validating batch of {} token(s) with Auth Service", tokens.size());
+
+        try {
+            List<Map<String, Object>> results = authServiceClient.validateTokens(Map.of("tokens", tokens));
+            if (results == null || results.size() != tokens.size()) {
+                throw new IllegalStateException("Auth Service returned "
+                        + (results == null ? 0 : results.size()) + " results for " + tokens.size() + " tokens");
+            }
+            for (int i = 0; i < tokens.size(); i++) {
+                batch.get(tokens.get(i)).complete(results.get(i));
+            }
+        } catch (Exception e) {
+            log.error("Batch token validation failed: {}", e.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdown();
+        sender.shutdown();
+    }
+}
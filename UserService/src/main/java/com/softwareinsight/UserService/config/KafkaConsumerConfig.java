@@ -4,13 +4,18 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import com.softwareinsight.UserService.dto.UserEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.apache.kafka.clients.admin.NewTopic;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -28,11 +33,17 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${user-events.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${user-events.consumer.concurrency:1}")
+    private int concurrency;
+
     /**
      * Consumer Factory for UserEvent
      */
     @Bean
-    public ConsumerFactory<String, UserEvent> consumerFactory() {
+    public ConsumerFactory<String, UserEvent> consumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> config = new HashMap<>();
 
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
@@ -40,26 +51,80 @@ public class KafkaConsumerConfig {
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
         // Trust all packages for deserialization
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, UserEvent.class.getName());
 
-        return new DefaultKafkaConsumerFactory<>(
+        DefaultKafkaConsumerFactory<String, UserEvent> factory = new DefaultKafkaConsumerFactory<>(
                 config,
                 new StringDeserializer(),
                 new JsonDeserializer<>(UserEvent.class, false)
         );
+        // Client metrics, including per-partition records-lag
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     /**
      * Kafka Listener Container Factory
+     * Batch listener: each poll (up to max-poll-records) is handed over as one List
+     * concurrency = consumer threads; partitions are spread across them (more threads than partitions sit idle)
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, UserEvent> consumerFactory) {
         ConcurrentKafkaListenerContainerFactory<String, UserEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        return factory;
+    }
+
+    /**
+     * Compacted topic for profile cache invalidations - only the latest record per userId matters
+     * ProfileInvalidationListener assigns itself the same number of partitions
+     */
+    @Bean
+    public NewTopic profileInvalidationTopic(
+            @Value("${user-profile.cache.invalidation.topic:user-profile-invalidations}") String topic,
+            @Value("${user-profile.cache.invalidation.partitions:3}") int partitions) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Consumer Factory for profile cache invalidations (key = userId, value = sender instance id)
+     * No group id: partitions are assigned manually, nothing is committed and reading starts at the latest offset
+     */
+    @Bean
+    public ConsumerFactory<String, String> invalidationConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    /**
+     * Kafka Listener Container Factory for profile cache invalidations
+     * MANUAL ack mode without acknowledging: the container never tries to commit offsets for the missing group
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> invalidationListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(invalidationConsumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         return factory;
     }
 }
\ No newline at end of file
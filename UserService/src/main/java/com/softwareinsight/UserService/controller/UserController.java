@@ -1,18 +1,26 @@
 package com.softwareinsight.UserService.controller;
 
-import com.softwareinsight.UserService.client.AuthServiceClient;
+import com.softwareinsight.UserService.security.TokenVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.softwareinsight.UserService.dto.UpdateUserRequest;
+import com.softwareinsight.UserService.dto.UserPageResponse;
 import com.softwareinsight.UserService.dto.UserProfileResponse;
 import com.softwareinsight.UserService.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,8 +36,12 @@ import java.util.Map;
 @RequiredArgsConstructor
 @Slf4j
 public class UserController {
+    private static final int STREAM_FLUSH_EVERY = 500;
+
     private final UserService userService;
-    private final AuthServiceClient authServiceClient;
+    private final TokenVerifier tokenVerifier;
+    private final HttpServletRequest httpServletRequest;
+    private final ObjectMapper objectMapper;
 
     /**
      * Get user profile by ID
@@ -65,22 +77,71 @@ public class UserController {
     }
 
     /**
-     * Get all users
-     * GET /api/v1/users
+     * Get users, one page at a time
+     * GET /api/v1/users?limit=50&cursor=...
      */
     @GetMapping
-    public ResponseEntity<List<UserProfileResponse>> getAllUsers(
+    public ResponseEntity<UserPageResponse> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
 
-        log.info("Get all users request");
+        log.info("Get users page request (limit: {})", limit);
 
         // Optional: Validate token
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             validateToken(authHeader);
         }
 
-        List<UserProfileResponse> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+        UserPageResponse page = userService.getUsersPage(cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Stream all users as newline-delimited JSON, one profile per line
+     * GET /api/v1/users with Accept: application/x-ndjson
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+
+        log.info("Stream all users request");
+
+        // Optional: Validate token
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            validateToken(authHeader);
+        }
+
+        ObjectWriter writer = objectMapper.writerFor(UserProfileResponse.class).withRootValueSeparator("\n");
+        StreamingResponseBody body = outputStream -> {
+            int[] written = {0};
+            try (SequenceWriter lines = writer.writeValues(outputStream)) {
+                userService.streamAllUsers(user -> writeLine(lines, user, ++written[0]));
+                if (written[0] > 0) {
+                    lines.flush();
+                    outputStream.write('\n');
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            log.debug("Streamed {} user profiles", written[0]);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static void writeLine(SequenceWriter lines, UserProfileResponse user, int count) {
+        try {
+            lines.write(user);
+            if (count % STREAM_FLUSH_EVERY == 0) {
+                lines.flush();
+            }
+        } catch (IOException e) {
+            // Client went away - abort the query
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -158,19 +219,14 @@ public class UserController {
     }
 
     /**
-     * Validate token with an Auth Service
-     * Circuit Breaker pattern protects against Auth Service failures
+     * Validate token
+     * Verified in-process (signed Gateway headers or local JWT check); Auth Service is only
+     * called for legacy tokens, behind the Circuit Breaker
      */
     private Map<String, Object> validateToken(String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-
-        Map<String, String> request = new HashMap<>();
-        request.put("token", token);
-
-        log.debug("Validating token with Auth Service");
+        log.debug("Validating token");
 
-        // Feign Client call with Circuit Breaker
-        Map<String, Object> response = authServiceClient.validateToken(request);
+        Map<String, Object> response = tokenVerifier.verify(authHeader, httpServletRequest);
 
         Boolean isValid = (Boolean) response.get("valid");
 
@@ -0,0 +1,22 @@
+package com.softwareinsight.UserService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of user profiles
+ * nextCursor is null on the last page; pass it back as ?cursor= to get the next one
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPageResponse {
+    private List<UserProfileResponse> users;
+    private String nextCursor;
+    private int limit;
+}
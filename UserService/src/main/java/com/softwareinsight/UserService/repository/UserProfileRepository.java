@@ -1,10 +1,17 @@
 package com.softwareinsight.UserService.repository;
 
 import com.softwareinsight.UserService.entity.UserProfile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository Pattern: Abstracts data access
@@ -15,4 +22,27 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
     Optional<UserProfile> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    /**
+     * userId for a username, without loading the profile (used to key the profile cache)
+     */
+    @Query("select p.userId from UserProfile p where p.username = :username")
+    Optional<Long> findUserIdByUsername(String username);
+
+    /**
+     * Keyset page: profiles after the given userId, in userId order
+     * Uses the primary key index, so the cost does not grow with the page number like OFFSET does
+     */
+    List<UserProfile> findByUserIdGreaterThanOrderByUserIdAsc(Long userId, Limit limit);
+
+    /**
+     * All profiles in userId order, fetched from the database in chunks
+     * Must be consumed inside a transaction and closed afterwards
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from UserProfile p order by p.userId")
+    Stream<UserProfile> streamAllOrderByUserId();
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.softwareinsight.UserService.security;
+
+import com.softwareinsight.UserService.client.AuthServiceClient;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Public token-signing keys fetched from Auth Service's /.well-known/jwks.json
+ *
+ * An unknown kid (e.g. after a key rotation) reloads the set before giving up, at most once
+ * per min-refresh-interval so tokens with made-up kids cannot flood Auth Service.
+ * The set is also reloaded once it is older than max-age, which drops retired keys.
+ */
+@Component
+@Slf4j
+public class JwksKeyCache {
+
+    private final AuthServiceClient authServiceClient;
+    private final boolean enabled;
+    private final long minRefreshIntervalNanos;
+    private final long maxAgeNanos;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long loadedAtNanos;
+    private long lastAttemptNanos;
+
+    public JwksKeyCache(
+            AuthServiceClient authServiceClient,
+            @Value("${auth.jwks.enabled:true}") boolean enabled,
+            @Value("${auth.jwks.min-refresh-interval:30s}") Duration minRefreshInterval,
+            @Value("${auth.jwks.max-age:15m}") Duration maxAge) {
+        this.authServiceClient = authServiceClient;
+        this.enabled = enabled;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * Public key for a kid, reloading the set on a miss; null if Auth Service does not know it either
+     */
+    public PublicKey get(String keyId) {
+        if (!enabled) {
+            return null;
+        }
+
+        PublicKey key = keys.get(keyId);
+        boolean stale = loadedAtNanos != 0 && System.nanoTime() - loadedAtNanos > maxAgeNanos;
+        if (key == null || stale) {
+            refresh();
+            key = keys.get(keyId);
+        }
+        return key;
+    }
+
+    /**
+     * Fetch the key set unless another fetch started less than min-refresh-interval ago
+     * A failed fetch keeps the previous keys
+     */
+    synchronized void refresh() {
+        long now = System.nanoTime();
+        if (lastAttemptNanos != 0 && now - lastAttemptNanos < minRefreshIntervalNanos) {
+            return;
+        }
+        lastAttemptNanos = now;
+
+        try {
+            String json = authServiceClient.jwks();
+            if (json == null) {
+                return;
+            }
+            keys = parse(json);
+            loadedAtNanos = System.nanoTime();
+            log.info("Loaded {} token signing key(s) from Auth Service", keys.size());
+        } catch (Exception e) {
+            log.warn("Could not fetch token signing keys: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Public keys by kid from a JWK set document; keys without a kid or that are not public are skipped
+     */
+    static Map<String, PublicKey> parse(String json) {
+        JwkSet jwkSet = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (Jwk<?> jwk : jwkSet.getKeys()) {
+            Key key = jwk.toKey();
+            if (jwk.getId() != null && key instanceof PublicKey publicKey) {
+                parsed.put(jwk.getId(), publicKey);
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+}
@@ -0,0 +1,285 @@
+package com.softwareinsight.UserService.security;
+
+import com.softwareinsight.UserService.client.TokenValidationBatcher;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-process token verification
+ *
+ * Resolves the caller's identity in order of cost:
+ * 1. Identity headers forwarded by the Gateway, if they carry a valid X-Gateway-Auth marker
+ *    for this method, path and bearer token
+ * 2. Local JWT verification - with Auth Service's public keys (JWKS) for tokens with a kid,
+ *    with the shared secret for tokens without one while Auth Service signs with HS256
+ *    (or jwt.signing.accept-legacy-hs256 is on after it has switched to a key pair)
+ * 3. Auth Service over Feign - only for tokens that lack the userId claim or whose key is not available
+ *    locally, or when both of the above are disabled
+ *
+ * The result has the same shape as Auth Service's /validate response.
+ */
+@Component
+@Slf4j
+public class TokenVerifier {
+
+    public static final String HEADER_USERNAME = "X-User-Username";
+    public static final String HEADER_USER_ID = "X-User-Id";
+    public static final String HEADER_ROLES = "X-User-Roles";
+    public static final String HEADER_MARKER = "X-Gateway-Auth";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String MARKER_VERSION = "v2";
+
+    private final TokenValidationBatcher tokenValidationBatcher;
+    private final JwksKeyCache jwksKeyCache;
+    private final boolean hs256Accepted;
+    private final SecretKey secretKey;
+    private final JwtParser jwtParser;
+    private final ThreadLocal<Mac> gatewayMac;
+    private final long maxSkewSeconds;
+
+    public TokenVerifier(
+            TokenValidationBatcher tokenValidationBatcher,
+            JwksKeyCache jwksKeyCache,
+            @Value("${auth.local-verification.enabled:true}") boolean localVerificationEnabled,
+            @Value("${jwt.secret:}") String jwtSecret,
+            @Value("${jwt.signing.algorithm:HS256}") String signingAlgorithm,
+            @Value("${jwt.signing.accept-legacy-hs256:false}") boolean acceptLegacyHs256,
+            @Value("${auth.gateway-trust.enabled:true}") boolean gatewayTrustEnabled,
+            @Value("${auth.gateway-trust.secret:}") String gatewaySecret,
+            @Value("${auth.gateway-trust.max-skew-seconds:30}") long maxSkewSeconds) {
+        this.tokenValidationBatcher = tokenValidationBatcher;
+        this.jwksKeyCache = jwksKeyCache;
+        this.hs256Accepted = "HS256".equalsIgnoreCase(signingAlgorithm.trim()) || acceptLegacyHs256;
+        this.secretKey = hs256Accepted ? secretKeyOrNull(jwtSecret) : null;
+        this.jwtParser = localVerificationEnabled && (secretKey != null || jwksKeyCache != null)
+                ? Jwts.parser().keyLocator(this::locateKey).build()
+                : null;
+        if (gatewayTrustEnabled && (gatewaySecret == null || gatewaySecret.isBlank())) {
+            throw new IllegalStateException("auth.gateway-trust.secret (GATEWAY_INTERNAL_AUTH_SECRET) must be set "
+                    + "while auth.gateway-trust.enabled is true");
+        }
+        this.gatewayMac = gatewayTrustEnabled ? macFor(gatewaySecret) : null;
+        this.maxSkewSeconds = maxSkewSeconds;
+
+        log.info("Token verification: gateway headers {}, local JWT {}, Auth Service fallback enabled",
+                gatewayMac != null ? "trusted" : "ignored",
+                jwtParser != null ? "enabled" : "disabled");
+    }
+
+    /**
+     * Verify the caller of the current request
+     *
+     * @param authHeader "Bearer ..." Authorization header value
+     * @param request    current request, used for Gateway identity headers
+     */
+    public Map<String, Object> verify(String authHeader, HttpServletRequest request) {
+        String token = authHeader.substring(7); // Remove "Bearer " prefix
+
+        Map<String, Object> fromGateway = fromGatewayHeaders(request, token);
+        if (fromGateway != null) {
+            log.debug("Identity taken from signed Gateway headers");
+            return fromGateway;
+        }
+
+        if (jwtParser != null) {
+            try {
+                Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+                if (claims.getExpiration() == null) {
+                    return invalidResponse("Invalid or expired token");
+                }
+                if (claims.get("userId") instanceof Number userId) {
+                    log.debug("Token verified locally");
+                    return validResponse(
+                            claims.getSubject(),
+                            userId.longValue(),
+                            claims.get("email", String.class),
+                            rolesFromClaims(claims.get("roles")));
+                }
+                // Token predates the userId claim - Auth Service still knows the user
+            } catch (KeyNotAvailableException e) {
+                log.debug("{} - asking Auth Service", e.getMessage());
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Local token verification failed: {}", e.getMessage());
+                return invalidResponse("Invalid or expired token");
+            }
+        }
+
+        return tokenValidationBatcher.validate(token);
+    }
+
+    /**
+     * Identity from Gateway headers, or null if the marker is missing or does not verify
+     * for this request and token
+     */
+    private Map<String, Object> fromGatewayHeaders(HttpServletRequest request, String token) {
+        if (gatewayMac == null) {
+            return null;
+        }
+
+        String marker = request.getHeader(HEADER_MARKER);
+        String username = request.getHeader(HEADER_USERNAME);
+        String userId = request.getHeader(HEADER_USER_ID);
+        String roles = request.getHeader(HEADER_ROLES);
+        if (marker == null || username == null || userId == null || userId.isEmpty() || roles == null) {
+            return null;
+        }
+
+        String[] parts = marker.split(":", 3);
+        if (parts.length != 3 || !MARKER_VERSION.equals(parts[0])) {
+            return null;
+        }
+
+        try {
+            long signedAt = Long.parseLong(parts[1]);
+            long now = System.currentTimeMillis() / 1000;
+            if (Math.abs(now - signedAt) > maxSkewSeconds) {
+                log.debug("Gateway marker is stale");
+                return null;
+            }
+
+            String payload = username + '\n' + userId + '\n' + roles + '\n'
+                    + request.getMethod() + '\n' + request.getRequestURI() + '\n' + token + '\n' + parts[1];
+            byte[] expected = gatewayMac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            byte[] actual = Base64.getUrlDecoder().decode(parts[2]);
+            if (!MessageDigest.isEqual(expected, actual)) {
+                log.warn("Gateway marker signature mismatch for user: {}", username);
+                return null;
+            }
+
+            return validResponse(username, Long.parseLong(userId), null, rolesFromHeader(roles));
+        } catch (IllegalArgumentException e) {
+            log.debug("Malformed Gateway identity headers: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<String, Object> validResponse(String username, Long userId, String email, Set<String> roles) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("valid", true);
+        response.put("username", username);
+        response.put("userId", userId);
+        if (email != null) {
+            response.put("email", email);
+        }
+        response.put("roles", roles);
+        return response;
+    }
+
+    private static Map<String, Object> invalidResponse(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("valid", false);
+        response.put("message", message);
+        return response;
+    }
+
+    private static Set<String> rolesFromClaims(Object roles) {
+        Set<String> result = new LinkedHashSet<>();
+        if (roles instanceof Collection<?> collection) {
+            collection.forEach(role -> result.add(String.valueOf(role)));
+        }
+        return result;
+    }
+
+    /**
+     * Parse the X-User-Roles header, e.g. [ROLE_USER, ROLE_ADMIN]
+     */
+    private static Set<String> rolesFromHeader(String roles) {
+        Set<String> result = new LinkedHashSet<>();
+        String trimmed = roles.trim();
+        if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+            trimmed = trimmed.substring(1, trimmed.length() - 1);
+        }
+        Arrays.stream(trimmed.split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Verification key for a token: the JWKS public key named by its kid, or the shared secret
+     * without one while HS256 tokens are accepted
+     */
+    private Key locateKey(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (keyId == null) {
+            if (!hs256Accepted) {
+                throw new UnsupportedJwtException("Token has no key id and HS256 tokens are no longer accepted");
+            }
+            if (secretKey == null) {
+                throw new KeyNotAvailableException("Token has no key id and jwt.secret is not usable");
+            }
+            return secretKey;
+        }
+
+        PublicKey key = jwksKeyCache != null ? jwksKeyCache.get(keyId) : null;
+        if (key == null) {
+            throw new KeyNotAvailableException("Unknown signing key: " + keyId);
+        }
+        return key;
+    }
+
+    /**
+     * The token cannot be checked here, but Auth Service may still accept it
+     */
+    private static final class KeyNotAvailableException extends JwtException {
+        KeyNotAvailableException(String message) {
+            super(message);
+        }
+    }
+
+    private static SecretKey secretKeyOrNull(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.info("jwt.secret is not set - only tokens signed with a published key (kid) are verified locally");
+            return null;
+        }
+        try {
+            return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        } catch (RuntimeException e) {
+            log.warn("jwt.secret is not a usable HMAC key - tokens without a kid cannot be verified locally: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private static ThreadLocal<Mac> macFor(String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        return ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + HMAC_ALGORITHM, e);
+            }
+        });
+    }
+}
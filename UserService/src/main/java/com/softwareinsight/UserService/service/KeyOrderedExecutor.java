@@ -0,0 +1,92 @@
+package com.softwareinsight.UserService.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs work for different keys in parallel while keeping items with the same key in order
+ *
+ * Items are split into shards by hash of their key; each shard is handed to the worker
+ * as one ordered list, and shards run concurrently. execute() returns once every shard
+ * is done, so the caller (a Kafka batch listener) only commits offsets for finished work.
+ *
+ * Disabled by default - the whole batch is then handed to the worker on the calling thread.
+ */
+@Component
+@Slf4j
+public class KeyOrderedExecutor {
+
+    private final boolean enabled;
+    private final int shards;
+    private final ExecutorService executor;
+
+    public KeyOrderedExecutor(
+            @Value("${user-events.consumer.key-ordered.enabled:false}") boolean enabled,
+            @Value("${user-events.consumer.key-ordered.shards:8}") int shards,
+            @Value("${user-events.consumer.key-ordered.virtual-threads:true}") boolean virtualThreads) {
+        this.enabled = enabled && shards > 1;
+        this.shards = Math.max(1, shards);
+        this.executor = !this.enabled ? null
+                : virtualThreads ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(this.shards);
+
+        if (this.enabled) {
+            log.info("Key-ordered processing enabled ({} shards, {} threads)",
+                    this.shards, virtualThreads ? "virtual" : "platform");
+        }
+    }
+
+    /**
+     * Hand the items to the worker grouped by key, preserving order within each key
+     * Blocks until all shards are done; rethrows the first failure
+     */
+    public <T> void execute(List<T> items, Function<T, ?> keyOf, Consumer<List<T>> worker) {
+        if (!enabled || items.size() < 2) {
+            worker.accept(items);
+            return;
+        }
+
+        List<List<T>> buckets = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (T item : items) {
+            buckets.get(Math.floorMod(Objects.hashCode(keyOf.apply(item)), shards)).add(item);
+        }
+
+        List<CompletableFuture<Void>> running = new ArrayList<>(shards);
+        for (List<T> bucket : buckets) {
+            if (!bucket.isEmpty()) {
+                running.add(CompletableFuture.runAsync(() -> worker.accept(bucket), executor));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
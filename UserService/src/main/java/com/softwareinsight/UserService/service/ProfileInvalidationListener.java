@@ -0,0 +1,47 @@
+package com.softwareinsight.UserService.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies profile cache invalidations published by other replicas
+ *
+ * Every replica reads every partition by manual assignment, without a consumer group - nothing is
+ * left behind on the broker when a replica goes away. There are no committed offsets, so it always
+ * starts from the latest offset, which is fine: a fresh replica has nothing cached yet.
+ *
+ * Design Pattern: Observer Pattern
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "user-profile.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class ProfileInvalidationListener {
+    private final UserProfileCache userProfileCache;
+    private final ProfileInvalidationPublisher profileInvalidationPublisher;
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = "${user-profile.cache.invalidation.topic:user-profile-invalidations}",
+                    partitions = "0-#{${user-profile.cache.invalidation.partitions:3} - 1}"),
+            containerFactory = "invalidationListenerContainerFactory"
+    )
+    public void onInvalidation(ConsumerRecord<String, String> record) {
+        if (profileInvalidationPublisher.getInstanceId().equals(record.value())) {
+            return;
+        }
+
+        try {
+            Long userId = Long.valueOf(record.key());
+            userProfileCache.evictLocal(userId);
+            log.debug("Evicted cached profile for userId {} (invalidated by another replica)", userId);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring cache invalidation with invalid key: {}", record.key());
+        }
+    }
+}
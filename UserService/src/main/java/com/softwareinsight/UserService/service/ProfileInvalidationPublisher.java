@@ -0,0 +1,58 @@
+package com.softwareinsight.UserService.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Publishes profile cache invalidations to the other UserService replicas
+ *
+ * One record per changed userId on a compacted topic (key = userId, value = id of the sending instance).
+ * Every replica reads all partitions of the topic - see ProfileInvalidationListener.
+ *
+ * Design Pattern: Publish-Subscribe
+ */
+@Component
+@Slf4j
+public class ProfileInvalidationPublisher {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final boolean enabled;
+    private final String topic;
+
+    /**
+     * Identifies this replica so it can skip its own invalidations
+     */
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public ProfileInvalidationPublisher(
+            KafkaTemplate<String, String> kafkaTemplate,
+            @Value("${user-profile.cache.invalidation.enabled:true}") boolean enabled,
+            @Value("${user-profile.cache.invalidation.topic:user-profile-invalidations}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+        this.topic = topic;
+    }
+
+    /**
+     * Tell the other replicas to drop their copy of this profile
+     * Asynchronous - a failed send only leaves other replicas stale until their TTL
+     */
+    public void publish(Long userId) {
+        if (!enabled) {
+            return;
+        }
+
+        kafkaTemplate.send(topic, userId.toString(), instanceId)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish cache invalidation for userId {}: {}", userId, ex.getMessage());
+                    }
+                });
+    }
+}
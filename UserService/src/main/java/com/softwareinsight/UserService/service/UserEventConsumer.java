@@ -3,11 +3,24 @@ package com.softwareinsight.UserService.service;
 import com.softwareinsight.UserService.dto.UserEvent;
 import com.softwareinsight.UserService.entity.UserProfile;
 import com.softwareinsight.UserService.repository.UserProfileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Kafka Event Consumer
@@ -19,15 +32,28 @@ import org.springframework.transaction.annotation.Transactional;
  * - Observer Pattern: Observes events from Kafka
  *
  * @KafkaListener automatically consumes messages from a specified topic
+ *
+ * Events arrive in batches (one poll). A batch is applied in one transaction:
+ * one findAllById for every userId in it, events folded in memory in order,
+ * then JDBC-batched inserts/updates/deletes (see hibernate.jdbc.batch_size).
+ * With key-ordered processing enabled the batch is split by userId (the record key)
+ * and the parts are applied in parallel, each in its own transaction.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserEventConsumer {
     private final UserProfileRepository userProfileRepository;
+    private final UserProfileCache userProfileCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final KeyOrderedExecutor keyOrderedExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Integer, Counter> consumedByPartition = new ConcurrentHashMap<>();
 
     /**
-     * Consume user events from Kafka
+     * Consume a batch of user events from Kafka
      *
      * Event-Driven Architecture: This service reacts to events from Auth Service
      * without direct coupling
@@ -37,85 +63,173 @@ public class UserEventConsumer {
             groupId = "users-service-group",
             containerFactory = "kafkaListenerContainerFactory"
     )
-    @Transactional
-    public void consumeUserEvent(UserEvent event) {
-        log.info("Received user event: {}", event);
+    public void consumeUserEvents(List<ConsumerRecord<String, UserEvent>> records) {
+        log.info("Received {} user event(s)", records.size());
 
+        // Redelivered or replayed duplicates within one poll are applied once
+        Set<UserEvent> unique = new LinkedHashSet<>();
+        for (ConsumerRecord<String, UserEvent> record : records) {
+            if (record.value() != null) {
+                unique.add(record.value());
+            }
+        }
+
+        keyOrderedExecutor.execute(new ArrayList<>(unique), UserEvent::getUserId, this::applyInTransaction);
+        recordConsumed(records);
+    }
+
+    private void applyInTransaction(List<UserEvent> events) {
         try {
+            transactionTemplate.executeWithoutResult(status -> applyBatch(events));
+        } catch (Exception e) {
+            // One bad event must not take the whole batch down - retry them one by one
+            log.error("Error processing batch of {} user event(s), retrying individually: {}",
+                    events.size(), e.getMessage());
+            events.forEach(this::applySingle);
+        }
+    }
+
+    /**
+     * Per-partition throughput; lag per partition comes from the consumer's own
+     * kafka.consumer.fetch.manager.records.lag metric
+     */
+    private void recordConsumed(List<ConsumerRecord<String, UserEvent>> records) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (ConsumerRecord<String, UserEvent> record : records) {
+            counts.merge(record.partition(), 1, Integer::sum);
+        }
+        counts.forEach((partition, count) -> consumedByPartition
+                .computeIfAbsent(partition, p -> Counter.builder("user.events.consumed")
+                        .description("user-events records processed")
+                        .tag("topic", "user-events")
+                        .tag("partition", String.valueOf(p))
+                        .register(meterRegistry))
+                .increment(count));
+    }
+
+    private void applySingle(UserEvent event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyBatch(List.of(event)));
+        } catch (Exception e) {
+            log.error("Error processing user event {}: {}", event, e.getMessage(), e);
+            // In production, you might want to:
+            // - Send to dead letter queue
+            // - Retry with exponential backoff
+            // - Alert monitoring system
+        }
+    }
+
+    /**
+     * Apply events in order against the profiles they touch, then write the end state
+     * Must run inside a transaction
+     */
+    private void applyBatch(List<UserEvent> events) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (UserEvent event : events) {
+            if (event.getUserId() != null) {
+                userIds.add(event.getUserId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        // Single existence check for the whole batch
+        Map<Long, UserProfile> stored = new HashMap<>();
+        userProfileRepository.findAllById(userIds).forEach(profile -> stored.put(profile.getUserId(), profile));
+
+        // Current state per userId; null = no profile
+        Map<Long, UserProfile> current = new LinkedHashMap<>(stored);
+        for (UserEvent event : events) {
+            if (event.getUserId() == null) {
+                log.warn("Skipping user event without userId: {}", event);
+                continue;
+            }
             switch (event.getEventType()) {
                 case "USER_CREATED":
-                    handleUserCreated(event);
+                    handleUserCreated(event, current, stored);
                     break;
                 case "USER_UPDATED":
-                    handleUserUpdated(event);
+                    handleUserUpdated(event, current);
                     break;
                 case "USER_DELETED":
-                    handleUserDeleted(event);
+                    handleUserDeleted(event, current);
                     break;
                 default:
                     log.warn("Unknown event type: {}", event.getEventType());
             }
-        } catch (Exception e) {
-            log.error("Error processing user event: {}", e.getMessage(), e);
-            // In production, you might want to:
-            // - Send to dead letter queue
-            // - Retry with exponential backoff
-            // - Alert monitoring system
         }
+
+        List<UserProfile> deleted = new ArrayList<>();
+        for (Long userId : userIds) {
+            UserProfile profile = current.get(userId);
+            if (profile == null) {
+                if (stored.containsKey(userId)) {
+                    deleted.add(stored.get(userId));
+                }
+            } else if (!stored.containsKey(userId)) {
+                // Known to be new - persist directly instead of save()'s merge, which would SELECT first
+                entityManager.persist(profile);
+            }
+            // Stored profiles that were updated are flushed by dirty checking
+        }
+        userProfileRepository.deleteAll(deleted);
+
+        userIds.forEach(userProfileCache::evict);
+        log.info("Applied {} user event(s) to {} profile(s)", events.size(), userIds.size());
     }
 
     /**
      * Handle USER_CREATED event
      */
-    private void handleUserCreated(UserEvent event) {
-        log.info("Creating user profile for user: {}", event.getUsername());
-
+    private void handleUserCreated(UserEvent event, Map<Long, UserProfile> current, Map<Long, UserProfile> stored) {
         // Check if a profile already exists (idempotency)
-        if (userProfileRepository.existsById(event.getUserId())) {
+        if (current.get(event.getUserId()) != null) {
             log.warn("User profile already exists for userId: {}", event.getUserId());
             return;
         }
 
-        UserProfile profile = UserProfile.builder()
-                .userId(event.getUserId())
-                .username(event.getUsername())
-                .email(event.getEmail())
-                .firstName(event.getFirstName())
-                .lastName(event.getLastName())
-                .active(true)
-                .build();
-
-        userProfileRepository.save(profile);
-        log.info("User profile created successfully for user: {}", event.getUsername());
+        UserProfile profile = stored.get(event.getUserId());
+        if (profile != null) {
+            // Deleted and re-created within this batch - reuse the stored row
+            applyEventFields(profile, event);
+            profile.setActive(true);
+        } else {
+            profile = UserProfile.builder()
+                    .userId(event.getUserId())
+                    .username(event.getUsername())
+                    .email(event.getEmail())
+                    .firstName(event.getFirstName())
+                    .lastName(event.getLastName())
+                    .active(true)
+                    .build();
+        }
+        current.put(event.getUserId(), profile);
     }
 
     /**
      * Handle USER_UPDATED event
      */
-    private void handleUserUpdated(UserEvent event) {
-        log.info("Updating user profile for user: {}", event.getUsername());
-
-        userProfileRepository.findById(event.getUserId())
-                .ifPresentOrElse(
-                        profile -> {
-                            profile.setUsername(event.getUsername());
-                            profile.setEmail(event.getEmail());
-                            profile.setFirstName(event.getFirstName());
-                            profile.setLastName(event.getLastName());
-                            userProfileRepository.save(profile);
-                            log.info("User profile updated successfully");
-                        },
-                        () -> log.warn("User profile not found for userId: {}", event.getUserId())
-                );
+    private void handleUserUpdated(UserEvent event, Map<Long, UserProfile> current) {
+        UserProfile profile = current.get(event.getUserId());
+        if (profile == null) {
+            log.warn("User profile not found for userId: {}", event.getUserId());
+            return;
+        }
+        applyEventFields(profile, event);
     }
 
     /**
      * Handle USER_DELETED event
      */
-    private void handleUserDeleted(UserEvent event) {
-        log.info("Deleting user profile for user: {}", event.getUsername());
+    private void handleUserDeleted(UserEvent event, Map<Long, UserProfile> current) {
+        current.put(event.getUserId(), null);
+    }
 
-        userProfileRepository.deleteById(event.getUserId());
-        log.info("User profile deleted successfully");
+    private static void applyEventFields(UserProfile profile, UserEvent event) {
+        profile.setUsername(event.getUsername());
+        profile.setEmail(event.getEmail());
+        profile.setFirstName(event.getFirstName());
+        profile.setLastName(event.getLastName());
     }
 }
\ No newline at end of file
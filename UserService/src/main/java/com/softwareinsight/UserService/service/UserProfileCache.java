@@ -0,0 +1,152 @@
+package com.softwareinsight.UserService.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.softwareinsight.UserService.dto.UserProfileResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache of user profiles
+ *
+ * Primary cache: userId -> UserProfileResponse
+ * Secondary index: username -> userId, so lookups by username reuse the same entries
+ *
+ * Both are size-bounded and expire after a TTL. Profiles are only ever loaded inside the cache's
+ * own compute for their userId, so an eviction waits for a running load and removes its result.
+ * Writers call evict(), which also evicts again after the surrounding transaction commits so a
+ * concurrent read of the old row cannot stay cached, and then tells the other replicas to evict
+ * through ProfileInvalidationPublisher.
+ *
+ * Design Pattern: Cache-Aside
+ */
+@Component
+@Slf4j
+public class UserProfileCache {
+
+    private final ProfileInvalidationPublisher invalidationPublisher;
+    private final boolean enabled;
+    private final Cache<Long, UserProfileResponse> profilesById;
+    private final Cache<String, Long> userIdsByUsername;
+
+    public UserProfileCache(
+            ProfileInvalidationPublisher invalidationPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${user-profile.cache.enabled:true}") boolean enabled,
+            @Value("${user-profile.cache.max-size:50000}") long maxSize,
+            @Value("${user-profile.cache.ttl:1h}") Duration ttl) {
+        this.invalidationPublisher = invalidationPublisher;
+        this.enabled = enabled;
+        this.profilesById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.userIdsByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, profilesById, "user-profiles");
+        log.info("User profile cache {} (max size: {}, ttl: {})", enabled ? "enabled" : "disabled", maxSize, ttl);
+    }
+
+    /**
+     * Get a profile by userId, loading it on a miss
+     * Exceptions from the loader (e.g. UserNotFoundException) propagate and nothing is cached
+     */
+    public UserProfileResponse getById(Long userId, Function<Long, UserProfileResponse> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+
+        UserProfileResponse profile = profilesById.get(userId, loader);
+        userIdsByUsername.put(profile.getUsername(), userId);
+        return profile;
+    }
+
+    /**
+     * Get a profile by username through the secondary index
+     *
+     * On a miss the username is resolved to a userId and the profile is loaded through getById(),
+     * never stored from outside the cache's compute - a load racing with evict() cannot re-cache a stale row.
+     * The result can carry a different username if the user was renamed after idResolver ran.
+     *
+     * @param idResolver username -> userId, e.g. an id-only query; exceptions propagate
+     * @param loader     userId -> profile, as for getById()
+     */
+    public UserProfileResponse getByUsername(String username,
+                                             Function<String, Long> idResolver,
+                                             Function<Long, UserProfileResponse> loader) {
+        if (!enabled) {
+            return loader.apply(idResolver.apply(username));
+        }
+
+        Long userId = userIdsByUsername.getIfPresent(username);
+        if (userId != null) {
+            UserProfileResponse cached = profilesById.getIfPresent(userId);
+            // The index can lag behind a username change - only trust a matching entry
+            if (cached != null && username.equals(cached.getUsername())) {
+                return cached;
+            }
+        }
+
+        return getById(idResolver.apply(username), loader);
+    }
+
+    /**
+     * Remove a profile now and again once the current transaction (if any) commits,
+     * then invalidate it on the other replicas
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        evictLocal(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictLocal(userId);
+                    if (status == STATUS_COMMITTED) {
+                        invalidationPublisher.publish(userId);
+                    }
+                }
+            });
+        } else {
+            invalidationPublisher.publish(userId);
+        }
+    }
+
+    /**
+     * Remove a profile from this replica only
+     */
+    public void evictLocal(Long userId) {
+        if (!enabled) {
+            return;
+        }
+
+        UserProfileResponse previous = profilesById.asMap().remove(userId);
+        if (previous != null) {
+            userIdsByUsername.asMap().remove(previous.getUsername(), userId);
+        }
+    }
+
+    /**
+     * Drop everything, e.g. after a bulk change
+     */
+    public void evictAll() {
+        profilesById.invalidateAll();
+        userIdsByUsername.invalidateAll();
+    }
+}
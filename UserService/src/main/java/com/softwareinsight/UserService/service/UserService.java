@@ -1,18 +1,24 @@
 package com.softwareinsight.UserService.service;
 
 import com.softwareinsight.UserService.dto.UpdateUserRequest;
+import com.softwareinsight.UserService.dto.UserPageResponse;
 import com.softwareinsight.UserService.dto.UserProfileResponse;
 import com.softwareinsight.UserService.entity.UserProfile;
 import com.softwareinsight.UserService.exception.UserNotFoundException;
 import com.softwareinsight.UserService.repository.UserProfileRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * User Service
@@ -25,44 +31,106 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String CURSOR_PREFIX = "u:";
+
     private final UserProfileRepository userProfileRepository;
+    private final UserProfileCache userProfileCache;
+    private final EntityManager entityManager;
 
     /**
      * Get a user profile by ID
+     *
+     * Served from the profile cache; not @Transactional so a cache hit never borrows a DB connection
      */
-    @Transactional(readOnly = true)
     public UserProfileResponse getUserProfile(Long userId) {
         log.debug("Fetching user profile for userId: {}", userId);
 
-        UserProfile profile = userProfileRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
-
-        return mapToResponse(profile);
+        return userProfileCache.getById(userId, id -> {
+            UserProfile profile = userProfileRepository.findById(id)
+                    .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + id));
+            return mapToResponse(profile);
+        });
     }
 
     /**
      * Get user profile by username
+     *
+     * Served from the profile cache via its username index
      */
-    @Transactional(readOnly = true)
     public UserProfileResponse getUserProfileByUsername(String username) {
         log.debug("Fetching user profile for username: {}", username);
 
-        UserProfile profile = userProfileRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
+        UserProfileResponse response = userProfileCache.getByUsername(
+                username,
+                name -> userProfileRepository.findUserIdByUsername(name)
+                        .orElseThrow(() -> new UserNotFoundException("User not found with username: " + name)),
+                id -> {
+                    UserProfile profile = userProfileRepository.findById(id)
+                            .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
+                    return mapToResponse(profile);
+                });
 
-        return mapToResponse(profile);
+        // Renamed between resolving the id and loading the profile
+        if (!username.equals(response.getUsername())) {
+            throw new UserNotFoundException("User not found with username: " + username);
+        }
+        return response;
     }
 
     /**
-     * Get all users
+     * Get one page of users, ordered by userId
+     *
+     * Keyset pagination: the cursor encodes the last userId of the previous page
+     *
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param limit  page size, 1..MAX_PAGE_SIZE
      */
     @Transactional(readOnly = true)
-    public List<UserProfileResponse> getAllUsers() {
-        log.debug("Fetching all user profiles");
+    public UserPageResponse getUsersPage(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        long afterUserId = decodeCursor(cursor);
+        log.debug("Fetching user profiles after userId: {} (limit: {})", afterUserId, limit);
 
-        return userProfileRepository.findAll().stream()
+        // One extra row tells us whether there is a next page
+        List<UserProfile> profiles = userProfileRepository
+                .findByUserIdGreaterThanOrderByUserIdAsc(afterUserId, Limit.of(limit + 1));
+
+        boolean hasMore = profiles.size() > limit;
+        List<UserProfileResponse> users = profiles.stream()
+                .limit(limit)
                 .map(this::mapToResponse)
-                .collect(Collectors.toList());
+                .toList();
+
+        return UserPageResponse.builder()
+                .users(users)
+                .nextCursor(hasMore ? encodeCursor(users.get(users.size() - 1).getUserId()) : null)
+                .limit(limit)
+                .build();
+    }
+
+    /**
+     * Stream all users, ordered by userId, to the given consumer
+     *
+     * Rows are fetched in chunks and detached once mapped, so memory use
+     * does not depend on the size of the table
+     */
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserProfileResponse> consumer) {
+        log.debug("Streaming all user profiles");
+
+        try (Stream<UserProfile> profiles = userProfileRepository.streamAllOrderByUserId()) {
+            profiles.forEach(profile -> {
+                UserProfileResponse response = mapToResponse(profile);
+                entityManager.detach(profile);
+                consumer.accept(response);
+            });
+        }
     }
 
     /**
@@ -105,6 +173,7 @@ public class UserService {
         }
 
         UserProfile updatedProfile = userProfileRepository.save(profile);
+        userProfileCache.evict(userId);
         log.info("User profile updated successfully for userId: {}", userId);
 
         return mapToResponse(updatedProfile);
@@ -121,6 +190,7 @@ public class UserService {
                 .ifPresent(profile -> {
                     profile.setLastLoginAt(LocalDateTime.now());
                     userProfileRepository.save(profile);
+                    userProfileCache.evict(userId);
                 });
     }
 
@@ -136,10 +206,31 @@ public class UserService {
 
         profile.setActive(false);
         userProfileRepository.save(profile);
+        userProfileCache.evict(userId);
 
         log.info("User deactivated successfully");
     }
 
+    private static String encodeCursor(Long userId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + userId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     /**
      * Map entity to response DTO
      */
@@ -3,7 +3,7 @@ package com.softwareinsight.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "auth.gateway-trust.secret=test-internal-auth-secret-0123456789")
 class UserServiceApplicationTests {
 
 	@Test
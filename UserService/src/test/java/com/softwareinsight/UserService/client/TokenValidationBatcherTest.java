@@ -0,0 +1,57 @@
+package com.softwareinsight.UserService.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenValidationBatcherTest {
+
+    private final AuthServiceClient client = mock(AuthServiceClient.class);
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private TokenValidationBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        batcher.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentCallsInOneWindowShareOneRequest() {
+        batcher = new TokenValidationBatcher(client, true, 200_000, 100);
+        when(client.validateTokens(any())).thenAnswer(invocation -> {
+            Map<String, List<String>> body = invocation.getArgument(0);
+            return body.get("tokens").stream()
+                    .map(token -> Map.<String, Object>of("valid", true, "username", token))
+                    .toList();
+        });
+
+        CompletableFuture<Map<String, Object>> a = CompletableFuture.supplyAsync(() -> batcher.validate("a"), callers);
+        CompletableFuture<Map<String, Object>> b = CompletableFuture.supplyAsync(() -> batcher.validate("b"), callers);
+        CompletableFuture<Map<String, Object>> a2 = CompletableFuture.supplyAsync(() -> batcher.validate("a"), callers);
+
+        assertThat(a.join()).containsEntry("username", "a");
+        assertThat(b.join()).containsEntry("username", "b");
+        assertThat(a2.join()).containsEntry("username", "a");
+        verify(client, times(1)).validateTokens(any());
+        verify(client, never()).validateToken(any());
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() {
+        batcher = new TokenValidationBatcher(client, true, 60_000_000, 1);
+        when(client.validateTokens(any())).thenReturn(List.of(Map.of("valid", true)));
+
+        assertThat(batcher.validate("a")).containsEntry("valid", true);
+    }
+}
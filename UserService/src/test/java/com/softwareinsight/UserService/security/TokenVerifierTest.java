@@ -0,0 +1,209 @@
+package com.softwareinsight.UserService.security;
+
+import com.softwareinsight.UserService.client.TokenValidationBatcher;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenVerifierTest {
+
+    private static final String GATEWAY_SECRET = "gateway-internal-secret";
+
+    private byte[] keyBytes;
+    private TokenValidationBatcher batcher;
+    private TokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        batcher = mock(TokenValidationBatcher.class);
+        verifier = new TokenVerifier(batcher, null, true, Encoders.BASE64.encode(keyBytes), "HS256", false, true, GATEWAY_SECRET, 30);
+    }
+
+    @Test
+    void tokenWithUserIdIsVerifiedLocally() {
+        String token = token(42L);
+
+        Map<String, Object> result = verifier.verify("Bearer " + token, new MockHttpServletRequest());
+
+        assertThat(result)
+                .containsEntry("valid", true)
+                .containsEntry("userId", 42L)
+                .containsEntry("roles", Set.of("ROLE_USER"));
+        verifyNoInteractions(batcher);
+    }
+
+    @Test
+    void tamperedTokenIsRejectedWithoutCallingAuthService() {
+        Map<String, Object> result = verifier.verify("Bearer " + token(42L) + "x", new MockHttpServletRequest());
+
+        assertThat(result).containsEntry("valid", false);
+        verifyNoInteractions(batcher);
+    }
+
+    @Test
+    void legacyTokenFallsBackToAuthService() {
+        when(batcher.validate(any())).thenReturn(Map.of("valid", true, "userId", 7L));
+
+        Map<String, Object> result = verifier.verify("Bearer " + token(null), new MockHttpServletRequest());
+
+        assertThat(result).containsEntry("userId", 7L);
+        verify(batcher).validate(any());
+    }
+
+    @Test
+    void signedGatewayHeadersAreTrusted() throws Exception {
+        MockHttpServletRequest request = gatewayRequest("alice", "42", "[ROLE_USER, ROLE_ADMIN]", "not-even-a-jwt");
+
+        Map<String, Object> result = verifier.verify("Bearer not-even-a-jwt", request);
+
+        assertThat(result)
+                .containsEntry("valid", true)
+                .containsEntry("username", "alice")
+                .containsEntry("userId", 42L)
+                .containsEntry("roles", Set.of("ROLE_USER", "ROLE_ADMIN"));
+    }
+
+    @Test
+    void forgedGatewayHeadersAreIgnored() throws Exception {
+        String token = token(42L);
+        MockHttpServletRequest request = gatewayRequest("alice", "42", "[ROLE_USER]", token);
+        request.removeHeader(TokenVerifier.HEADER_USER_ID);
+        request.addHeader(TokenVerifier.HEADER_USER_ID, "1");
+
+        Map<String, Object> result = verifier.verify("Bearer " + token, request);
+
+        assertThat(result).containsEntry("userId", 42L);
+    }
+
+    @Test
+    void gatewayHeadersReplayedOnAnotherCallAreIgnored() throws Exception {
+        MockHttpServletRequest request = gatewayRequest("alice", "1", "[ROLE_ADMIN]", "not-even-a-jwt");
+        request.setMethod("DELETE");
+
+        assertThat(verifier.verify("Bearer not-even-a-jwt", request)).containsEntry("valid", false);
+
+        request = gatewayRequest("alice", "1", "[ROLE_ADMIN]", "not-even-a-jwt");
+        request.setRequestURI("/api/v1/users/7");
+
+        assertThat(verifier.verify("Bearer not-even-a-jwt", request)).containsEntry("valid", false);
+    }
+
+    @Test
+    void gatewayHeadersAreBoundToTheBearerToken() throws Exception {
+        String token = token(42L);
+        MockHttpServletRequest request = gatewayRequest("mallory", "1", "[ROLE_ADMIN]", "some-other-token");
+
+        Map<String, Object> result = verifier.verify("Bearer " + token, request);
+
+        assertThat(result).containsEntry("username", "alice").containsEntry("userId", 42L);
+    }
+
+    @Test
+    void gatewayTrustRequiresItsOwnSecret() {
+        assertThatThrownBy(() -> new TokenVerifier(batcher, null, true, Encoders.BASE64.encode(keyBytes), "HS256", false, true, "", 30))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("auth.gateway-trust.secret");
+    }
+
+    @Test
+    void tokenSignedWithPublishedKeyIsVerifiedWithoutTheSecret() {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        JwksKeyCache jwksKeyCache = mock(JwksKeyCache.class);
+        when(jwksKeyCache.get("k1")).thenReturn(keyPair.getPublic());
+        TokenVerifier withoutSecret = new TokenVerifier(batcher, jwksKeyCache, true, "", "ES256", false, true, GATEWAY_SECRET, 30);
+
+        Map<String, Object> result = withoutSecret.verify("Bearer " + signedToken(keyPair, "k1"), new MockHttpServletRequest());
+
+        assertThat(result).containsEntry("valid", true).containsEntry("userId", 42L);
+        verifyNoInteractions(batcher);
+    }
+
+    @Test
+    void tokenWithUnknownKeyIsLeftToAuthService() {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        JwksKeyCache jwksKeyCache = mock(JwksKeyCache.class);
+        TokenVerifier withoutSecret = new TokenVerifier(batcher, jwksKeyCache, true, "", "ES256", false, true, GATEWAY_SECRET, 30);
+        when(batcher.validate(any())).thenReturn(Map.of("valid", false));
+
+        Map<String, Object> result = withoutSecret.verify("Bearer " + signedToken(keyPair, "k2"), new MockHttpServletRequest());
+
+        assertThat(result).containsEntry("valid", false);
+        verify(jwksKeyCache).get("k2");
+        verify(batcher).validate(any());
+    }
+
+    @Test
+    void tokenWithoutKidIsRejectedAfterTheSwitchUnlessLegacyHs256IsAccepted() {
+        String secret = Encoders.BASE64.encode(keyBytes);
+        JwksKeyCache jwksKeyCache = mock(JwksKeyCache.class);
+        TokenVerifier switched = new TokenVerifier(batcher, jwksKeyCache, true, secret, "ES256", false, true, GATEWAY_SECRET, 30);
+        TokenVerifier migrating = new TokenVerifier(batcher, jwksKeyCache, true, secret, "ES256", true, true, GATEWAY_SECRET, 30);
+
+        assertThat(switched.verify("Bearer " + token(42L), new MockHttpServletRequest())).containsEntry("valid", false);
+        assertThat(migrating.verify("Bearer " + token(42L), new MockHttpServletRequest())).containsEntry("valid", true);
+        verifyNoInteractions(batcher);
+    }
+
+    private MockHttpServletRequest gatewayRequest(String username, String userId, String roles, String token)
+            throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(GATEWAY_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] signature = mac.doFinal((username + '\n' + userId + '\n' + roles + '\n'
+                + "GET\n/api/v1/users/42\n" + token + '\n' + now)
+                .getBytes(StandardCharsets.UTF_8));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/42");
+        request.addHeader(TokenVerifier.HEADER_USERNAME, username);
+        request.addHeader(TokenVerifier.HEADER_USER_ID, userId);
+        request.addHeader(TokenVerifier.HEADER_ROLES, roles);
+        request.addHeader(TokenVerifier.HEADER_MARKER,
+                "v2:" + now + ":" + Base64.getUrlEncoder().withoutPadding().encodeToString(signature));
+        return request;
+    }
+
+    private static String signedToken(KeyPair keyPair, String kid) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .subject("alice")
+                .claim("userId", 42L)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+    }
+
+    private String token(Long userId) {
+        long now = System.currentTimeMillis();
+        var builder = Jwts.builder()
+                .subject("alice")
+                .claim("roles", List.of("ROLE_USER"))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 60_000))
+                .signWith(Keys.hmacShaKeyFor(keyBytes));
+        if (userId != null) {
+            builder.claim("userId", userId).claim("email", "alice@example.com");
+        }
+        return builder.compact();
+    }
+}
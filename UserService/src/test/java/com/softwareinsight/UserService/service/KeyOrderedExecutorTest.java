@@ -0,0 +1,28 @@
+package com.softwareinsight.UserService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyOrderedExecutorTest {
+
+    @Test
+    void itemsWithTheSameKeyKeepTheirOrder() {
+        KeyOrderedExecutor executor = new KeyOrderedExecutor(true, 4, true);
+        Map<Integer, List<Integer>> seenByKey = new ConcurrentHashMap<>();
+        List<int[]> items = IntStream.range(0, 1_000).mapToObj(i -> new int[]{i % 10, i}).toList();
+
+        executor.execute(items, item -> item[0], shard -> shard.forEach(item ->
+                seenByKey.computeIfAbsent(item[0], k -> new ArrayList<>()).add(item[1])));
+
+        assertThat(seenByKey).hasSize(10);
+        seenByKey.values().forEach(sequence -> assertThat(sequence).hasSize(100).isSorted());
+        executor.shutdown();
+    }
+}
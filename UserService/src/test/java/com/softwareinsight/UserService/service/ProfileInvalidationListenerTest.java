@@ -0,0 +1,85 @@
+package com.softwareinsight.UserService.service;
+
+import com.softwareinsight.UserService.config.KafkaConsumerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+/**
+ * Invalidations are read from every partition without creating a consumer group on the broker
+ */
+@SpringJUnitConfig
+@EmbeddedKafka(topics = "user-profile-invalidations", partitions = 3)
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=users-service-group"
+})
+class ProfileInvalidationListenerTest {
+
+    @Configuration
+    @Import({KafkaConsumerConfig.class, ProfileInvalidationListener.class})
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private UserProfileCache userProfileCache;
+
+    @MockitoBean
+    private ProfileInvalidationPublisher profileInvalidationPublisher;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Test
+    void invalidationsOnEveryPartitionAreAppliedWithoutConsumerGroup() throws Exception {
+        when(profileInvalidationPublisher.getInstanceId()).thenReturn("this-replica");
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class)));
+
+        // The listener starts at the latest offset, so keep sending until it is positioned
+        await().atMost(Duration.ofSeconds(30)).pollInterval(Duration.ofMillis(200)).untilAsserted(() -> {
+            for (int partition = 0; partition < 3; partition++) {
+                template.send("user-profile-invalidations", partition, String.valueOf(partition + 1), "other-replica");
+            }
+            verify(userProfileCache, atLeastOnce()).evictLocal(1L);
+            verify(userProfileCache, atLeastOnce()).evictLocal(2L);
+            verify(userProfileCache, atLeastOnce()).evictLocal(3L);
+        });
+
+        template.send("user-profile-invalidations", 0, "4", "this-replica").get();
+        verify(userProfileCache, after(500).never()).evictLocal(4L);
+
+        try (Admin admin = Admin.create(Map.of(
+                AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            assertThat(admin.listConsumerGroups().all().get()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.softwareinsight.UserService.service;
+
+import com.softwareinsight.UserService.dto.UserEvent;
+import com.softwareinsight.UserService.entity.UserProfile;
+import com.softwareinsight.UserService.repository.UserProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class UserEventConsumerTest {
+
+    private final UserProfileRepository repository = mock(UserProfileRepository.class);
+    private final UserProfileCache cache = mock(UserProfileCache.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserEventConsumer consumer = new UserEventConsumer(repository, cache, entityManager,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new KeyOrderedExecutor(false, 1, false), meterRegistry);
+
+    @Test
+    void batchIsAppliedWithOneLookupAndDuplicatesCollapsed() {
+        UserProfile existing = UserProfile.builder().userId(2L).username("bob").build();
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(existing));
+
+        UserEvent created = event("USER_CREATED", 1L, "alice");
+        consumer.consumeUserEvents(records(
+                created,
+                created,
+                event("USER_UPDATED", 1L, "alice2"),
+                event("USER_DELETED", 2L, "bob")));
+
+        verify(repository, times(1)).findAllById(anyIterable());
+
+        ArgumentCaptor<UserProfile> persisted = ArgumentCaptor.forClass(UserProfile.class);
+        verify(entityManager, times(1)).persist(persisted.capture());
+        assertThat(persisted.getValue().getUsername()).isEqualTo("alice2");
+
+        verify(repository).deleteAll(List.of(existing));
+        verify(cache).evict(1L);
+        verify(cache).evict(2L);
+        assertThat(meterRegistry.get("user.events.consumed").tag("partition", "0").counter().count())
+                .isEqualTo(4.0);
+    }
+
+    @Test
+    void failedBatchIsRetriedPerEvent() {
+        when(repository.findAllById(anyIterable()))
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(List.of());
+
+        consumer.consumeUserEvents(records(event("USER_CREATED", 1L, "alice"), event("USER_CREATED", 3L, "carol")));
+
+        verify(repository, times(3)).findAllById(anyIterable());
+        verify(entityManager, times(2)).persist(any(UserProfile.class));
+    }
+
+    private static List<ConsumerRecord<String, UserEvent>> records(UserEvent... events) {
+        return IntStream.range(0, events.length)
+                .mapToObj(i -> new ConsumerRecord<>("user-events", 0, i,
+                        String.valueOf(events[i].getUserId()), events[i]))
+                .toList();
+    }
+
+    private static UserEvent event(String type, Long userId, String username) {
+        return UserEvent.builder()
+                .eventType(type)
+                .userId(userId)
+                .username(username)
+                .email(username + "@example.com")
+                .firstName(username)
+                .lastName("Test")
+                .build();
+    }
+}
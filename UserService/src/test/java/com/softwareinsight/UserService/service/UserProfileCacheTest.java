@@ -0,0 +1,109 @@
+package com.softwareinsight.UserService.service;
+
+import com.softwareinsight.UserService.dto.UserProfileResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserProfileCacheTest {
+
+    private final ProfileInvalidationPublisher publisher = mock(ProfileInvalidationPublisher.class);
+    private final UserProfileCache cache =
+            new UserProfileCache(publisher, new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1));
+
+    @Test
+    void repeatedLookupsHitTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getById(1L, id -> { loads.incrementAndGet(); return profile(id, "alice"); });
+        cache.getById(1L, id -> { loads.incrementAndGet(); return profile(id, "alice"); });
+        UserProfileResponse byUsername = cache.getByUsername("alice",
+                username -> { loads.incrementAndGet(); return 1L; },
+                id -> { loads.incrementAndGet(); return profile(id, "alice"); });
+
+        assertThat(loads).hasValue(1);
+        assertThat(byUsername.getUserId()).isEqualTo(1L);
+    }
+
+    @Test
+    void evictForcesReloadAndNotifiesOtherReplicas() {
+        cache.getById(1L, id -> profile(id, "alice"));
+        cache.evict(1L);
+
+        UserProfileResponse reloaded = cache.getById(1L, id -> profile(id, "alice2"));
+
+        assertThat(reloaded.getUsername()).isEqualTo("alice2");
+        verify(publisher).publish(1L);
+    }
+
+    @Test
+    void evictLocalDoesNotRepublish() {
+        cache.getById(1L, id -> profile(id, "alice"));
+        cache.evictLocal(1L);
+
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void staleUsernameIndexIsNotTrusted() {
+        cache.getById(1L, id -> profile(id, "alice"));
+        cache.evictLocal(1L);
+        cache.getById(1L, id -> profile(id, "alice-renamed"));
+
+        AtomicInteger loads = new AtomicInteger();
+        UserProfileResponse profile = cache.getByUsername("alice",
+                username -> 2L,
+                id -> { loads.incrementAndGet(); return profile(id, "alice"); });
+
+        assertThat(loads).hasValue(1);
+        assertThat(profile.getUserId()).isEqualTo(2L);
+    }
+
+    @Test
+    void evictDuringUsernameLoadDoesNotLeaveStaleProfile() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Reader loads the pre-commit row and is slow to return it
+        Thread reader = new Thread(() -> cache.getByUsername("alice", username -> 1L, id -> {
+            loading.countDown();
+            await(release);
+            return profile(id, "alice-old");
+        }));
+        reader.start();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Writer's post-commit eviction arrives while the load is running
+        Thread writer = new Thread(() -> cache.evictLocal(1L));
+        writer.start();
+        while (writer.isAlive() && writer.getState() == Thread.State.RUNNABLE) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        reader.join(5000);
+        writer.join(5000);
+
+        UserProfileResponse profile = cache.getById(1L, id -> profile(id, "alice-new"));
+
+        assertThat(profile.getUsername()).isEqualTo("alice-new");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static UserProfileResponse profile(Long userId, String username) {
+        return UserProfileResponse.builder().userId(userId).username(username).build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.softwareinsight.UserService.service;
+
+import com.softwareinsight.UserService.dto.UserPageResponse;
+import com.softwareinsight.UserService.dto.UserProfileResponse;
+import com.softwareinsight.UserService.entity.UserProfile;
+import com.softwareinsight.UserService.repository.UserProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class UserServicePagingTest {
+
+    private final UserProfileRepository repository = mock(UserProfileRepository.class);
+    private final UserService userService = new UserService(repository, null, null);
+
+    @Test
+    void cursorResumesAfterLastUserOfPreviousPage() {
+        when(repository.findByUserIdGreaterThanOrderByUserIdAsc(Long.MIN_VALUE, Limit.of(3)))
+                .thenReturn(profiles(1, 3));
+        when(repository.findByUserIdGreaterThanOrderByUserIdAsc(2L, Limit.of(3)))
+                .thenReturn(profiles(3, 1));
+
+        UserPageResponse first = userService.getUsersPage(null, 2);
+        assertThat(first.getUsers()).extracting(UserProfileResponse::getUserId).containsExactly(1L, 2L);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        UserPageResponse second = userService.getUsersPage(first.getNextCursor(), 2);
+        assertThat(second.getUsers()).extracting(UserProfileResponse::getUserId).containsExactly(3L);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsBadCursorAndLimit() {
+        assertThatThrownBy(() -> userService.getUsersPage("not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> userService.getUsersPage(null, UserService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<UserProfile> profiles(long firstId, int count) {
+        return LongStream.range(firstId, firstId + count)
+                .mapToObj(id -> UserProfile.builder().userId(id).username("user" + id).build())
+                .toList();
+    }
+}